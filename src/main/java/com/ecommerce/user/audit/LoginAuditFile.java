@@ -0,0 +1,75 @@
+package com.ecommerce.user.audit;
+
+import com.ecommerce.user.entity.LoginAttempt;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Append-only JSON-lines spill files, one set per UTC day: {@code login-attempts-<date>.<n>.ndjson}, moving on
+ * to the next {@code n} once a file reaches the size cap. Only the audit flush thread writes here.
+ */
+class LoginAuditFile {
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long maxFileSize;
+    private LocalDate day;
+    private int index;
+    private Path current;
+    private BufferedWriter writer;
+
+    LoginAuditFile(ObjectMapper objectMapper, Path directory, long maxFileSize) {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+    }
+
+    void append(List<LoginAttempt> attempts) throws IOException {
+        roll();
+        for (LoginAttempt attempt : attempts) {
+            writer.write(objectMapper.writeValueAsString(attempt));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (writer != null && today.equals(day) && Files.size(current) < maxFileSize) {
+            return;
+        }
+        close();
+        if (!today.equals(day)) {
+            day = today;
+            index = 0;
+        }
+        Files.createDirectories(directory);
+        // Resume after a restart by skipping the files that are already full
+        while (Files.exists(file()) && Files.size(file()) >= maxFileSize) {
+            index++;
+        }
+        current = file();
+        writer = Files.newBufferedWriter(current, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+    }
+
+    private Path file() {
+        return directory.resolve("login-attempts-" + day + "." + index + ".ndjson");
+    }
+}
@@ -0,0 +1,183 @@
+package com.ecommerce.user.audit;
+
+import com.ecommerce.user.entity.LoginAttempt;
+import com.ecommerce.user.entity.LoginOutcome;
+import com.ecommerce.user.sharding.ShardRoutingDataSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records every credential check without adding a database write to the login path. {@link #record} appends to a
+ * lock-free queue bounded at {@code user.login-audit.buffer-size} and returns; when the queue is full the attempt
+ * is dropped and counted rather than blocking the login. Every {@code user.login-audit.flush-interval} a flush
+ * drains it into {@code login_attempts} in JDBC batches. The flush runs on its own thread rather than the shared
+ * task scheduler, which runs fixed-delay tasks one at a time, so a long purge cannot hold it up. While the connection pool has callers waiting, or for {@code user.login-audit.db-backoff} after
+ * a batch fails, batches go to rolling files under {@code user.login-audit.spill-dir} instead.
+ *
+ * <p>With sharding the table lives on shard 0 only, so reads and writes never fan out.
+ */
+@Component
+@Slf4j
+public class LoginAuditTrail {
+
+    private static final String INSERT =
+            "INSERT INTO login_attempts (username, user_id, outcome, attempted_at) VALUES (?, ?, ?, ?)";
+    private static final String RECENT = "SELECT id, username, user_id, outcome, attempted_at FROM login_attempts"
+            + " WHERE username = ? ORDER BY attempted_at DESC, id DESC LIMIT ?";
+
+    private final ConcurrentLinkedQueue<LoginAttempt> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final JdbcTemplate jdbcTemplate;
+    private final HikariDataSource pool;
+    private final LoginAuditFile spillFile;
+    private final int bufferSize;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration dbBackoff;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("login-audit-flush").daemon().factory());
+    private final Counter dropped;
+    private final Counter writtenToDb;
+    private final Counter writtenToFile;
+    private volatile long dbBlockedUntil;
+
+    public LoginAuditTrail(DataSource dataSource, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${user.login-audit.buffer-size:10000}") int bufferSize,
+            @Value("${user.login-audit.batch-size:500}") int batchSize,
+            @Value("${user.login-audit.flush-interval:PT1S}") Duration flushInterval,
+            @Value("${user.login-audit.db-backoff:PT30S}") Duration dbBackoff,
+            @Value("${user.login-audit.query-timeout:PT2S}") Duration queryTimeout,
+            @Value("${user.login-audit.spill-dir:logs/login-audit}") Path spillDir,
+            @Value("${user.login-audit.max-file-size:64MB}") DataSize maxFileSize) {
+        DataSource target = dataSource instanceof ShardRoutingDataSource shards ? shards.shard(0) : dataSource;
+        this.jdbcTemplate = new JdbcTemplate(target);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, queryTimeout.toSeconds()));
+        this.pool = target instanceof HikariDataSource hikari ? hikari : null;
+        this.spillFile = new LoginAuditFile(objectMapper, spillDir, maxFileSize.toBytes());
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.dbBackoff = dbBackoff;
+        this.dropped = meterRegistry.counter("user.login.audit.dropped");
+        this.writtenToDb = meterRegistry.counter("user.login.audit.written", "sink", "db");
+        this.writtenToFile = meterRegistry.counter("user.login.audit.written", "sink", "file");
+        meterRegistry.gauge("user.login.audit.buffered", buffered);
+    }
+
+    public void record(String username, Long userId, LoginOutcome outcome) {
+        if (buffered.incrementAndGet() > bufferSize) {
+            buffered.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        buffer.offer(LoginAttempt.builder()
+                .username(username)
+                .userId(userId)
+                .outcome(outcome)
+                .attemptedAt(System.currentTimeMillis())
+                .build());
+    }
+
+    /** Most recent first. Attempts still in the buffer, or spilled to file, are not included. */
+    public List<LoginAttempt> recentAttempts(String username, int limit) {
+        return jdbcTemplate.query(RECENT, new BeanPropertyRowMapper<>(LoginAttempt.class), username, limit);
+    }
+
+    @PostConstruct
+    void start() {
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                // An exception escaping a scheduled task would cancel every later run
+                log.error("Login audit flush failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void flush() {
+        List<LoginAttempt> batch;
+        do {
+            batch = drain();
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+        spillFile.close();
+    }
+
+    private List<LoginAttempt> drain() {
+        List<LoginAttempt> batch = new ArrayList<>(Math.min(batchSize, buffered.get()));
+        LoginAttempt attempt;
+        while (batch.size() < batchSize && (attempt = buffer.poll()) != null) {
+            batch.add(attempt);
+        }
+        buffered.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private void write(List<LoginAttempt> batch) {
+        if (!dbSaturated()) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, attempt) -> {
+                    ps.setString(1, attempt.getUsername());
+                    ps.setObject(2, attempt.getUserId());
+                    ps.setString(3, attempt.getOutcome().name());
+                    ps.setLong(4, attempt.getAttemptedAt());
+                });
+                writtenToDb.increment(batch.size());
+                return;
+            } catch (DataAccessException e) {
+                dbBlockedUntil = System.currentTimeMillis() + dbBackoff.toMillis();
+                log.warn("Login audit batch failed, spilling to file for {}", dbBackoff, e);
+            }
+        }
+        try {
+            spillFile.append(batch);
+            writtenToFile.increment(batch.size());
+        } catch (IOException e) {
+            dropped.increment(batch.size());
+            log.error("Failed to spill {} login attempts", batch.size(), e);
+        }
+    }
+
+    private boolean dbSaturated() {
+        if (System.currentTimeMillis() < dbBlockedUntil) {
+            return true;
+        }
+        HikariPoolMXBean mxBean = pool == null ? null : pool.getHikariPoolMXBean();
+        return mxBean != null && mxBean.getThreadsAwaitingConnection() > 0;
+    }
+}
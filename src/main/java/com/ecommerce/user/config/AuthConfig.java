@@ -1,7 +1,9 @@
 package com.ecommerce.user.config;
 
 import org.springframework.context.annotation.Bean;
+import org.springframework.security.config.Customizer;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -24,9 +26,15 @@ public class AuthConfig {
         http.csrf(AbstractHttpConfigurer::disable)
                 .authenticationProvider(authProvider)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/**", "/api/users/**", "/v3/api-docs/**", "/swagger-ui/**")
+                        // Login history of any account, so it must not fall under the public /api/users/** below
+                        .requestMatchers(HttpMethod.GET, "/api/users/login-attempts").hasRole("ADMIN")
+                        .requestMatchers("/api/auth/**", "/api/users/**", "/v3/api-docs/**", "/swagger-ui/**",
+                                "/actuator/health/**", "/actuator/info", "/actuator/prometheus")
                         .permitAll()
-                        .anyRequest().authenticated());
+                        // Metrics, JFR recordings and anything else actuator exposes are for operators only
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        .anyRequest().authenticated())
+                .httpBasic(Customizer.withDefaults());
         return http.build();
     }
 
@@ -1,29 +1,29 @@
 package com.ecommerce.user.config;
 
-import com.ecommerce.user.entity.User;
-import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.exception.UserNotFoundException;
+import com.ecommerce.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
-
 @Component
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserRepository repository;
+    private final UserService userService;
 
     @Autowired
-    public CustomUserDetailsService(UserRepository repository) {
-        this.repository = repository;
+    public CustomUserDetailsService(UserService userService) {
+        this.userService = userService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<User> credential = repository.findByUsername(username);
-        return credential.map(CustomUserDetails::new)
-                .orElseThrow(() -> new UsernameNotFoundException("user not found with name :" + username));
+        try {
+            return new CustomUserDetails(userService.getUserByUsername(username));
+        } catch (UserNotFoundException e) {
+            throw new UsernameNotFoundException("user not found with name :" + username);
+        }
     }
 }
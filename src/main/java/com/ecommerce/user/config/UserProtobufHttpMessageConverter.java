@@ -0,0 +1,80 @@
+package com.ecommerce.user.config;
+
+import com.ecommerce.user.dto.UserProtoMapper;
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.google.protobuf.Message;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes {@link User} and {@code List<Address>} bodies as {@code application/x-protobuf} for clients that ask
+ * for it, so internal callers get the compact encoding from the same routes. Encoding goes through the
+ * generated message classes; it is registered after Jackson so JSON stays the default. Only {@link User} is
+ * advertised by class: a raw {@code List} says nothing about its elements, so routes returning addresses declare
+ * the protobuf type in {@code produces} instead.
+ */
+public class UserProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType PROTOBUF = MediaType.parseMediaType(PROTOBUF_VALUE);
+
+    public UserProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return User.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return canWrite(mediaType) && (supports(clazz) || isAddressList(type));
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        Message message = toMessage(body);
+        outputMessage.getHeaders().setContentLength(message.getSerializedSize());
+        message.writeTo(outputMessage.getBody());
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Message toMessage(Object body) {
+        if (body instanceof User user) {
+            return UserProtoMapper.toUserSummary(user);
+        }
+        return UserProtoMapper.toAddressSummaryList((List<Address>) body);
+    }
+
+    private static boolean isAddressList(Type type) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw && List.class.isAssignableFrom(raw)
+                && parameterized.getActualTypeArguments()[0] == Address.class;
+    }
+}
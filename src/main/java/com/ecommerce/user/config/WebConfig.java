@@ -0,0 +1,17 @@
+package com.ecommerce.user.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Appended last: only chosen when the Accept header asks for protobuf explicitly
+        converters.add(new UserProtobufHttpMessageConverter());
+    }
+}
@@ -1,14 +1,27 @@
 package com.ecommerce.user.controller;
 
+import com.ecommerce.user.audit.LoginAuditTrail;
+import com.ecommerce.user.config.UserProtobufHttpMessageConverter;
 import com.ecommerce.user.dto.UserLoginRequest;
 import com.ecommerce.user.dto.UserRegistrationRequest;
 import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.LoginAttempt;
 import com.ecommerce.user.entity.User;
+import com.ecommerce.user.dto.UserChangesResponse;
+import com.ecommerce.user.dto.UserProfileResponse;
+import com.ecommerce.user.service.IdempotencyStore;
+import com.ecommerce.user.service.UserChangeFeedService;
+import com.ecommerce.user.service.UserProfileService;
 import com.ecommerce.user.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,12 +31,19 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final IdempotencyStore idempotencyStore;
+    private final UserChangeFeedService changeFeedService;
+    private final LoginAuditTrail loginAuditTrail;
+    private final UserProfileService profileService;
 
     @PostMapping("/register")
     public ResponseEntity<com.ecommerce.user.dto.ApiResponse<String>> registerUser(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody UserRegistrationRequest request) {
-        String result = userService.registerUser(request);
-        return ResponseEntity.ok(new com.ecommerce.user.dto.ApiResponse<>(true, 200, result, null));
+        return idempotencyStore.execute(idempotencyKey, "register", request, () -> {
+            String result = userService.registerUser(request);
+            return ResponseEntity.ok(new com.ecommerce.user.dto.ApiResponse<>(true, 200, result, null));
+        });
     }
 
     @PostMapping("/validate")
@@ -50,6 +70,30 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
+    // Replica bootstrap: all live users as gzip-compressed JSON lines, plus the watermark to resync from
+    @GetMapping("/snapshot")
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+        long watermark = changeFeedService.currentWatermark();
+        return ResponseEntity.ok()
+                .header(UserChangeFeedService.WATERMARK_HEADER, String.valueOf(watermark))
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(changeFeedService::writeSnapshot);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<UserChangesResponse> getChanges(@RequestParam("since") long since,
+            @RequestParam(value = "afterId", required = false) Long afterId,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(since, afterId, limit));
+    }
+
+    @GetMapping("/login-attempts")
+    public ResponseEntity<List<LoginAttempt>> getLoginAttempts(@RequestParam("username") String username,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(loginAuditTrail.recentAttempts(username, Math.max(1, Math.min(limit, 100))));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<User> getUser(@PathVariable Long id) {
         return ResponseEntity.ok(userService.getUserById(id));
@@ -57,13 +101,16 @@ public class UserController {
 
     @PutMapping("/{id}")
     public ResponseEntity<com.ecommerce.user.dto.ApiResponse<User>> updateUser(@PathVariable Long id,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @RequestBody User user) {
-        User updatedUser = userService.updateUser(id, user);
-        return ResponseEntity.ok(new com.ecommerce.user.dto.ApiResponse<>(
-                true,
-                200,
-                "User updated successfully",
-                updatedUser));
+        return idempotencyStore.execute(idempotencyKey, "updateUser:" + id, user, () -> {
+            User updatedUser = userService.updateUser(id, user);
+            return ResponseEntity.ok(new com.ecommerce.user.dto.ApiResponse<>(
+                    true,
+                    200,
+                    "User updated successfully",
+                    updatedUser));
+        });
     }
 
     @DeleteMapping("/{id}")
@@ -77,24 +124,52 @@ public class UserController {
     }
 
     // Address Endpoints
-    @GetMapping("/{userId}/addresses")
+    @GetMapping("/{id}/profile")
+    public ResponseEntity<UserProfileResponse> getProfile(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        UserProfileService.Result result = profileService.getProfile(id, ifNoneMatch);
+        if (result.notModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(result.etag()).build();
+        }
+        if (result.profile().getStatus() == UserProfileResponse.Status.PARTIAL) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(result.profile());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate());
+        if (result.etag() != null) {
+            response.eTag(result.etag());
+        }
+        return response.body(result.profile());
+    }
+
+    // Declared here because producible types are otherwise resolved by raw class, which cannot tell List<Address> apart
+    @GetMapping(value = "/{userId}/addresses",
+            produces = { MediaType.APPLICATION_JSON_VALUE, UserProtobufHttpMessageConverter.PROTOBUF_VALUE })
     public ResponseEntity<List<Address>> getUserAddresses(@PathVariable Long userId) {
         return ResponseEntity.ok(userService.getUserAddresses(userId));
     }
 
     @PostMapping("/{userId}/addresses")
-    public ResponseEntity<Address> addAddress(@PathVariable Long userId, @RequestBody Address address) {
-        return ResponseEntity.ok(userService.addAddress(userId, address));
+    public ResponseEntity<Address> addAddress(@PathVariable Long userId,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody Address address) {
+        return idempotencyStore.execute(idempotencyKey, "addAddress:" + userId, address,
+                () -> ResponseEntity.ok(userService.addAddress(userId, address)));
     }
 
     @PutMapping("/addresses/{addressId}")
-    public ResponseEntity<Address> updateAddress(@PathVariable Long addressId, @RequestBody Address address) {
-        return ResponseEntity.ok(userService.updateAddress(addressId, address));
+    public ResponseEntity<Address> updateAddress(@PathVariable Long addressId,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody Address address) {
+        return idempotencyStore.execute(idempotencyKey, "updateAddress:" + addressId, address,
+                () -> ResponseEntity.ok(userService.updateAddress(addressId, address)));
     }
 
     @DeleteMapping("/addresses/{addressId}")
-    public ResponseEntity<Void> deleteAddress(@PathVariable Long addressId) {
-        userService.deleteAddress(addressId);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<Void> deleteAddress(@PathVariable Long addressId,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "deleteAddress:" + addressId, null, () -> {
+            userService.deleteAddress(addressId);
+            return ResponseEntity.noContent().<Void>build();
+        });
     }
 }
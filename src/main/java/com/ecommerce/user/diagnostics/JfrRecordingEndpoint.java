@@ -0,0 +1,206 @@
+package com.ecommerce.user.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts and stops an on-demand Flight Recorder recording and summarizes what it captured:
+ * virtual threads pinned to their carrier, contended monitors, and the user service events.
+ * The JFR settings profile and how much history the recording keeps come from {@code user.jfr.*}.
+ */
+@Component
+@Endpoint(id = "jfr")
+@Slf4j
+public class JfrRecordingEndpoint {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+    private static final String EVENT_PREFIX = "com.ecommerce.user.";
+    private static final int TOP_FRAMES = 10;
+
+    private final String settings;
+    private final Duration maxAge;
+    private Recording recording;
+
+    public JfrRecordingEndpoint(@Value("${user.jfr.settings:default}") String settings,
+            @Value("${user.jfr.max-age:PT10M}") Duration maxAge) {
+        this.settings = settings;
+        this.maxAge = maxAge;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings, e);
+        }
+        recording.setName("user-service");
+        recording.enable(PINNED).withStackTrace().withThreshold(Duration.ofMillis(5));
+        recording.enable(MONITOR_ENTER).withStackTrace().withThreshold(Duration.ofMillis(5));
+        recording.enable(UserRegistrationEvent.class);
+        recording.enable(LoginValidationEvent.class);
+        recording.enable(UserVerificationEvent.class);
+        recording.enable(KafkaPublishEvent.class);
+        recording.enable(RepositoryCallEvent.class);
+        recording.setMaxAge(maxAge);
+        recording.setToDisk(true);
+        recording.start();
+        log.info("Started JFR recording {}", recording.getId());
+        return status();
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording == null) {
+            return Map.of("state", "NOT_STARTED");
+        }
+        Path dump = null;
+        try {
+            dump = Files.createTempFile("user-service-", ".jfr");
+            recording.stop();
+            recording.dump(dump);
+            recording.close();
+            recording = null;
+            log.info("Stopped JFR recording, summarizing {}", dump);
+            return summarize(dump);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // Only the summary is returned; recordings can hold sensitive stack data, so none are left behind
+            deleteQuietly(dump);
+        }
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording != null ? recording.getState().name() : "NOT_STARTED");
+        if (recording != null) {
+            status.put("id", recording.getId());
+            status.put("startTime", recording.getStartTime());
+        }
+        return status;
+    }
+
+    private Map<String, Object> summarize(Path dump) throws IOException {
+        Map<String, Stats> byEvent = new HashMap<>();
+        Map<String, Stats> pinnedFrames = new HashMap<>();
+        Map<String, Stats> contendedFrames = new HashMap<>();
+
+        try (RecordingFile file = new RecordingFile(dump)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                long nanos = event.getDuration().toNanos();
+                if (name.equals(PINNED)) {
+                    byEvent.computeIfAbsent(name, k -> new Stats()).add(nanos);
+                    pinnedFrames.computeIfAbsent(topFrame(event), k -> new Stats()).add(nanos);
+                } else if (name.equals(MONITOR_ENTER)) {
+                    byEvent.computeIfAbsent(name, k -> new Stats()).add(nanos);
+                    contendedFrames.computeIfAbsent(topFrame(event), k -> new Stats()).add(nanos);
+                } else if (name.startsWith(EVENT_PREFIX)) {
+                    Stats stats = byEvent.computeIfAbsent(name, k -> new Stats());
+                    stats.add(nanos);
+                    if (event.hasField("outcome")) {
+                        stats.outcomes.merge(String.valueOf(event.getString("outcome")), 1L, Long::sum);
+                    }
+                }
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("events", toView(byEvent, Integer.MAX_VALUE));
+        summary.put("pinnedFrames", toView(pinnedFrames, TOP_FRAMES));
+        summary.put("contendedMonitorFrames", toView(contendedFrames, TOP_FRAMES));
+        return summary;
+    }
+
+    private static void deleteQuietly(Path dump) {
+        if (dump == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(dump);
+        } catch (IOException e) {
+            log.warn("Could not delete JFR dump {}", dump, e);
+        }
+    }
+
+    private static String topFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "<no stack trace>";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        // Skip JDK frames so the summary points at the driver or application code holding the monitor
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return frames.isEmpty() ? "<empty>" : frames.get(0).getMethod().getType().getName() + "."
+                + frames.get(0).getMethod().getName();
+    }
+
+    private static Map<String, Map<String, Object>> toView(Map<String, Stats> stats, int limit) {
+        Map<String, Map<String, Object>> view = new LinkedHashMap<>();
+        stats.entrySet().stream()
+                .sorted(Map.Entry.<String, Stats>comparingByValue(Comparator.comparingLong(s -> s.totalNanos))
+                        .reversed())
+                .limit(limit)
+                .forEach(e -> view.put(e.getKey(), e.getValue().toView()));
+        return view;
+    }
+
+    private static final class Stats {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private final Map<String, Long> outcomes = new HashMap<>();
+
+        void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        Map<String, Object> toView() {
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("count", count);
+            view.put("totalMs", totalNanos / 1_000_000.0);
+            view.put("avgMs", count == 0 ? 0 : totalNanos / 1_000_000.0 / count);
+            view.put("maxMs", maxNanos / 1_000_000.0);
+            if (!outcomes.isEmpty()) {
+                view.put("outcomes", outcomes);
+            }
+            return view;
+        }
+    }
+}
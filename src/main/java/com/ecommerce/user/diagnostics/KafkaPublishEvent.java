@@ -0,0 +1,50 @@
+package com.ecommerce.user.diagnostics;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+@Name("com.ecommerce.user.KafkaPublish")
+@Label("Kafka Publish")
+public class KafkaPublishEvent extends UserServiceEvent {
+
+    @Label("Topic")
+    private final String topic;
+
+    @Label("Key")
+    private final String key;
+
+    public KafkaPublishEvent(String topic, String key) {
+        this.topic = topic;
+        this.key = key;
+    }
+
+    /**
+     * Spans the send from hand-off to the broker's acknowledgement: the event is committed when the
+     * returned future completes, not when the producer accepts the record.
+     */
+    public <T> CompletableFuture<T> recordUntilAcknowledged(String subject, Supplier<CompletableFuture<T>> send) {
+        if (!isEnabled()) {
+            return send.get();
+        }
+        userHash = hash(subject);
+        begin();
+        CompletableFuture<T> future;
+        try {
+            future = send.get();
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            commit();
+            throw e;
+        }
+        return future.whenComplete((result, failure) -> {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            outcome = cause == null ? SUCCESS : cause.getClass().getSimpleName();
+            commit();
+        });
+    }
+}
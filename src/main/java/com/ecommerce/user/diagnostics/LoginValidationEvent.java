@@ -0,0 +1,9 @@
+package com.ecommerce.user.diagnostics;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.ecommerce.user.LoginValidation")
+@Label("Login Validation")
+public class LoginValidationEvent extends UserServiceEvent {
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.user.diagnostics;
+
+import jdk.jfr.EventType;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+public class RepositoryCallAspect {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(RepositoryCallEvent.class);
+
+    @Around("execution(* com.ecommerce.user.repository.*.*(..))")
+    public Object recordRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!EVENT_TYPE.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        RepositoryCallEvent event = new RepositoryCallEvent(
+                joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                joinPoint.getSignature().getName());
+
+        Object[] args = joinPoint.getArgs();
+        if (args.length > 0 && (args[0] instanceof String || args[0] instanceof Number)) {
+            event.userHash = UserServiceEvent.hash(String.valueOf(args[0]));
+        }
+        event.begin();
+        try {
+            Object result = joinPoint.proceed();
+            event.outcome = UserServiceEvent.SUCCESS;
+            return result;
+        } catch (Throwable t) {
+            event.outcome = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.user.diagnostics;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.ecommerce.user.RepositoryCall")
+@Label("Repository Call")
+public class RepositoryCallEvent extends UserServiceEvent {
+
+    @Label("Repository")
+    private final String repository;
+
+    @Label("Method")
+    private final String method;
+
+    public RepositoryCallEvent(String repository, String method) {
+        this.repository = repository;
+        this.method = method;
+    }
+}
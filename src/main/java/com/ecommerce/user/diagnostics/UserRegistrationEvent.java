@@ -0,0 +1,9 @@
+package com.ecommerce.user.diagnostics;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.ecommerce.user.Registration")
+@Label("User Registration")
+public class UserRegistrationEvent extends UserServiceEvent {
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.user.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Base class for the custom Flight Recorder events emitted by the user service.
+ * Events carry a short hash of the user identifier instead of the identifier itself,
+ * and do no work at all unless a recording has the event enabled.
+ */
+@Category({ "User Service" })
+@StackTrace(false)
+public abstract class UserServiceEvent extends Event {
+
+    public static final String SUCCESS = "SUCCESS";
+
+    @Label("User Hash")
+    protected String userHash;
+
+    @Label("Outcome")
+    protected String outcome;
+
+    public <T> T record(String subject, Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        userHash = hash(subject);
+        begin();
+        try {
+            T result = action.get();
+            outcome = SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            commit();
+        }
+    }
+
+    public static String hash(String subject) {
+        if (subject == null) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(subject.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().toHexDigits((int) crc.getValue());
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.user.diagnostics;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.ecommerce.user.Verification")
+@Label("User Verification")
+public class UserVerificationEvent extends UserServiceEvent {
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.user.dto;
+
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.UserRole;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A user and its full address list as replicated to downstream services, one per snapshot line or change
+ * feed entry. A deleted user carries only its id, {@code updatedAt} and {@code deleted = true}.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserChange {
+    private Long id;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String phoneNumber;
+    private String address;
+    private UserRole role;
+    private boolean verified;
+    private Long createdAt;
+    private Long updatedAt;
+    private boolean deleted;
+    private List<Address> addresses;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserChangesResponse {
+    private List<UserChange> changes;
+    // Pass back as since (and afterId, when set) to continue from here
+    private long watermark;
+    private Long afterId;
+    private boolean hasMore;
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.user.dto;
+
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.UserRole;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Everything the account page shows in one response. When part of it could not be loaded in time the status is
+ * {@code PARTIAL}, the missing sections ({@code user}, {@code addresses}) are listed and their fields left out.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserProfileResponse {
+
+    public enum Status {
+        COMPLETE,
+        PARTIAL
+    }
+
+    private Status status;
+    private List<String> missing;
+    private Long version;
+    private Long id;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String phoneNumber;
+    private UserRole role;
+    private Boolean verified;
+    private Long createdAt;
+    private List<Address> addresses;
+    private Address defaultAddress;
+}
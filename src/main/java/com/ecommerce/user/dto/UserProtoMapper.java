@@ -0,0 +1,71 @@
+package com.ecommerce.user.dto;
+
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.proto.AddressSummary;
+import com.ecommerce.user.proto.AddressSummaryList;
+import com.ecommerce.user.proto.UserSummary;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Maps entities onto the generated protobuf messages. Proto3 builders reject nulls, so unset
+ * entity fields are simply left at their wire defaults.
+ */
+public final class UserProtoMapper {
+
+    private UserProtoMapper() {
+    }
+
+    public static UserSummary toUserSummary(User user) {
+        UserSummary.Builder builder = UserSummary.newBuilder().setVerified(user.isVerified());
+        if (user.getId() != null) {
+            builder.setId(user.getId());
+        }
+        if (user.getCreatedAt() != null) {
+            builder.setCreatedAt(user.getCreatedAt());
+        }
+        if (user.getRole() != null) {
+            builder.setRole(user.getRole().name());
+        }
+        set(builder::setUsername, user.getUsername());
+        set(builder::setEmail, user.getEmail());
+        set(builder::setFirstName, user.getFirstName());
+        set(builder::setLastName, user.getLastName());
+        set(builder::setPhoneNumber, user.getPhoneNumber());
+        return builder.build();
+    }
+
+    public static AddressSummaryList toAddressSummaryList(List<Address> addresses) {
+        AddressSummaryList.Builder builder = AddressSummaryList.newBuilder();
+        for (Address address : addresses) {
+            builder.addAddresses(toAddressSummary(address));
+        }
+        return builder.build();
+    }
+
+    public static AddressSummary toAddressSummary(Address address) {
+        AddressSummary.Builder builder = AddressSummary.newBuilder().setIsDefault(address.isDefault());
+        if (address.getId() != null) {
+            builder.setId(address.getId());
+        }
+        // Reading the id off a lazy user proxy does not initialize it
+        if (address.getUser() != null && address.getUser().getId() != null) {
+            builder.setUserId(address.getUser().getId());
+        }
+        set(builder::setFullName, address.getFullName());
+        set(builder::setAddressLine, address.getAddressLine());
+        set(builder::setCity, address.getCity());
+        set(builder::setState, address.getState());
+        set(builder::setZipCode, address.getZipCode());
+        set(builder::setPhone, address.getPhone());
+        return builder.build();
+    }
+
+    private static void set(Consumer<String> setter, String value) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+}
@@ -28,8 +28,16 @@ public class Address {
     @Builder.Default
     private boolean isDefault = false;
 
+    private Long updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonIgnore
     private User user;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = System.currentTimeMillis();
+    }
 }
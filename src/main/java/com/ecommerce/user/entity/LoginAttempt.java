@@ -0,0 +1,32 @@
+package com.ecommerce.user.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One {@code validateUserCredentials} outcome. Rows are only ever inserted, in batches, by
+ * {@link com.ecommerce.user.audit.LoginAuditTrail}; the mapping exists so the table is created with the schema.
+ */
+@Entity
+@Table(name = "login_attempts", indexes = @Index(name = "idx_login_attempts_username", columnList = "username, attempted_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoginAttempt {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String username;
+    // Null when the username did not match an account
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    private LoginOutcome outcome;
+
+    private Long attemptedAt;
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.user.entity;
+
+public enum LoginOutcome {
+    SUCCESS,
+    USER_NOT_FOUND,
+    BAD_PASSWORD,
+    UNVERIFIED
+}
@@ -8,12 +8,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_updated_at", columnList = "updated_at, id"))
+@SQLRestriction("deleted_at is null")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -44,6 +46,12 @@ public class User {
     private boolean isVerified = false;
     private String verificationToken;
     private Long createdAt;
+    // Change feed watermark: bumped on every write to the user or one of its addresses
+    private Long updatedAt;
+
+    // Set when the user is deleted; the row and its addresses are purged later in the background
+    @JsonIgnore
+    private Long deletedAt;
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
@@ -51,4 +59,10 @@ public class User {
 
     @Enumerated(EnumType.STRING)
     private UserRole role;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = System.currentTimeMillis();
+    }
 }
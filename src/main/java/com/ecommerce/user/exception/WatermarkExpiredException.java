@@ -0,0 +1,11 @@
+package com.ecommerce.user.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GONE)
+public class WatermarkExpiredException extends RuntimeException {
+    public WatermarkExpiredException(String message) {
+        super(message);
+    }
+}
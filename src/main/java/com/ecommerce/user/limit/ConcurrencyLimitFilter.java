@@ -0,0 +1,116 @@
+package com.ecommerce.user.limit;
+
+import com.ecommerce.user.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of {@code /api/**} requests in flight at the current {@link GradientLimit} and turns the rest
+ * away with an immediate 503 and {@code Retry-After}, rather than letting them queue behind the database pool.
+ * Each {@link RequestPriority} may only fill its share of the limit, so low priority traffic is shed first.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final GradientLimit limit;
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<RequestPriority, Counter> admitted = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+
+    public ConcurrencyLimitFilter(GradientLimit limit, ConcurrencyLimitProperties properties,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds()));
+        for (RequestPriority priority : RequestPriority.values()) {
+            admitted.put(priority, meterRegistry.counter("user.concurrency.admitted",
+                    "priority", priority.name().toLowerCase()));
+            rejected.put(priority, meterRegistry.counter("user.concurrency.rejected",
+                    "priority", priority.name().toLowerCase()));
+        }
+        meterRegistry.gauge("user.concurrency.limit", limit, GradientLimit::getLimit);
+        meterRegistry.gauge("user.concurrency.inflight", inFlight);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestPriority priority = RequestPriority.of(request);
+        int current = inFlight.incrementAndGet();
+        if (current > priority.allowance(limit.getLimit())) {
+            inFlight.decrementAndGet();
+            rejected.get(priority).increment();
+            reject(response);
+            return;
+        }
+        admitted.get(priority).increment();
+
+        long started = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streamed bodies finish on another thread; hold the slot until then but keep them out of the RTT
+                request.getAsyncContext().addListener(new Release());
+                async = true;
+            } else if (response.getStatus() < 500) {
+                limit.onSample(System.nanoTime() - started, current);
+            }
+        } finally {
+            if (!async) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(), "Service is at capacity, retry later", null));
+    }
+
+    private class Release implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            inFlight.decrementAndGet();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
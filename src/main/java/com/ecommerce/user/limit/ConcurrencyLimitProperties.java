@@ -0,0 +1,21 @@
+package com.ecommerce.user.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "user.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private int initialLimit = 100;
+    private int minLimit = 10;
+    private int maxLimit = 1000;
+    // How far the short-term latency may drift above the long-term baseline before the limit shrinks
+    private double tolerance = 1.5;
+    // Weight of each new limit estimate; lower reacts slower but steadier
+    private double smoothing = 0.2;
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
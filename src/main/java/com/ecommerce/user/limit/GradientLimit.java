@@ -0,0 +1,62 @@
+package com.ecommerce.user.limit;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient concurrency limit in the style of Netflix's Gradient2. It compares a fast moving average of
+ * request latency with a slow one: while they agree the limit grows by roughly its square root, and when
+ * latency rises above {@code tolerance} times the baseline the limit shrinks in proportion. It only grows
+ * while at least half of it is in use, so an idle service does not drift up to the maximum.
+ */
+public class GradientLimit {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    public GradientLimit(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.tolerance = properties.getTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.limit = properties.getInitialLimit();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public void onSample(long rttNanos, int inFlight) {
+        lock.lock();
+        try {
+            if (longRtt == 0) {
+                shortRtt = rttNanos;
+                longRtt = rttNanos;
+                return;
+            }
+            shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+            longRtt += (rttNanos - longRtt) / LONG_WINDOW;
+            // Once overload has passed, let the baseline catch up quickly instead of staying inflated
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+            if (inFlight < limit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+            double estimate = limit * gradient + Math.sqrt(limit);
+            limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + estimate * smoothing));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.user.limit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.regex.Pattern;
+
+/**
+ * Load shedding classes. A request is admitted only while the requests in flight stay below its share of the
+ * current limit, so as the service saturates {@code LOW} requests are turned away first and {@code CRITICAL}
+ * ones last.
+ */
+public enum RequestPriority {
+
+    // Credential validation and single-user lookups that other services sit behind
+    CRITICAL(1.0),
+    NORMAL(0.8),
+    // Bulk and reporting reads that can be retried later
+    LOW(0.5);
+
+    private static final Pattern USER_BY_ID = Pattern.compile("/api/users/\\d+");
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    public int allowance(int limit) {
+        return Math.max(1, (int) (limit * share));
+    }
+
+    public static RequestPriority of(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if ("POST".equals(method) && path.equals("/api/users/validate")) {
+            return CRITICAL;
+        }
+        if ("GET".equals(method)) {
+            if (USER_BY_ID.matcher(path).matches()) {
+                return CRITICAL;
+            }
+            if (path.equals("/api/users") || path.equals("/api/users/snapshot") || path.equals("/api/users/changes")
+                    || path.equals("/api/users/login-attempts")) {
+                return LOW;
+            }
+        }
+        return NORMAL;
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.user.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.LayoutBase;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Renders each log event as a single JSON line with PII masked out of the message and stack trace.
+ * Runs on the async appender's worker thread, so the formatting cost stays off the request path.
+ */
+public class MaskingJsonLayout extends LayoutBase<ILoggingEvent> {
+
+    private String service = "user-service";
+
+    public void setService(String service) {
+        this.service = service;
+    }
+
+    @Override
+    public String doLayout(ILoggingEvent event) {
+        StringBuilder json = new StringBuilder(256);
+        json.append('{');
+        field(json, "@timestamp", Instant.ofEpochMilli(event.getTimeStamp()).toString()).append(',');
+        field(json, "level", event.getLevel().toString()).append(',');
+        field(json, "service", service).append(',');
+        field(json, "logger", event.getLoggerName()).append(',');
+        field(json, "thread", event.getThreadName()).append(',');
+        field(json, "message", PiiMasker.mask(event.getFormattedMessage()));
+
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null) {
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                json.append(',');
+                field(json, entry.getKey(), PiiMasker.mask(entry.getValue()));
+            }
+        }
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            json.append(',');
+            field(json, "exception", PiiMasker.mask(ThrowableProxyUtil.asString(throwable)));
+        }
+        return json.append('}').append(CoreConstants.LINE_SEPARATOR).toString();
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/json";
+    }
+
+    private static StringBuilder field(StringBuilder json, String name, String value) {
+        quote(json, name).append(':');
+        return value == null ? json.append("null") : quote(json, value);
+    }
+
+    private static StringBuilder quote(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+}
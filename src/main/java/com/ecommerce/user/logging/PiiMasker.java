@@ -0,0 +1,38 @@
+package com.ecommerce.user.logging;
+
+import java.util.regex.Pattern;
+
+/**
+ * Masks personal data and secrets that end up in free-form log messages: email addresses,
+ * usernames logged as {@code user: <name>}, verification tokens, BCrypt hashes and JWTs.
+ */
+public final class PiiMasker {
+
+    private static final Pattern EMAIL = Pattern.compile("([A-Za-z0-9._%+-])[A-Za-z0-9._%+-]*@([A-Za-z0-9.-]+)");
+    private static final Pattern USERNAME = Pattern.compile("(?i)\\b(user(?:name)?:\\s*)(\\S)\\S*");
+    private static final Pattern UUID = Pattern.compile(
+            "\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    private static final Pattern BCRYPT = Pattern.compile("\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}");
+    private static final Pattern JWT = Pattern.compile("\\beyJ[\\w-]+\\.[\\w-]+\\.[\\w-]+");
+
+    private PiiMasker() {
+    }
+
+    public static String mask(String message) {
+        if (message == null || message.isEmpty()) {
+            return message;
+        }
+        String masked = message;
+        if (masked.indexOf('@') >= 0) {
+            masked = EMAIL.matcher(masked).replaceAll("$1***@$2");
+        }
+        if (masked.indexOf('$') >= 0) {
+            masked = BCRYPT.matcher(masked).replaceAll("[bcrypt]");
+        }
+        if (masked.contains("eyJ")) {
+            masked = JWT.matcher(masked).replaceAll("[jwt]");
+        }
+        masked = UUID.matcher(masked).replaceAll("[token]");
+        return USERNAME.matcher(masked).replaceAll("$1$2***");
+    }
+}
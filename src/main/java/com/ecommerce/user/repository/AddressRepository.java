@@ -1,12 +1,34 @@
 package com.ecommerce.user.repository;
 
 import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.sharding.ShardKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface AddressRepository extends JpaRepository<Address, Long> {
-    List<Address> findByUserId(Long userId);
+public interface AddressRepository extends JpaRepository<Address, Long>, AddressRepositoryCustom {
+    @Query("select a from Address a where a.user.id = :userId and a.user.deletedAt is null")
+    List<Address> findByUserId(@ShardKey @Param("userId") Long userId);
+
+    List<Address> findByUserIdIn(Collection<Long> userIds);
+
+    @Override
+    @Query("select a from Address a where a.id = :id and a.user.deletedAt is null")
+    Optional<Address> findById(@Param("id") Long id);
+
+    @Query(value = "SELECT id FROM addresses WHERE user_id IN (:userIds) ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsByUserIds(@Param("userIds") Collection<Long> userIds, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Address a where a.id in :ids")
+    int purgeByIds(@Param("ids") Collection<Long> ids);
 }
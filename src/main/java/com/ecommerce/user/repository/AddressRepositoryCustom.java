@@ -0,0 +1,12 @@
+package com.ecommerce.user.repository;
+
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.sharding.ShardKey;
+
+import java.util.List;
+
+public interface AddressRepositoryCustom {
+
+    /** {@code findByUserId} whose statement the driver cancels after {@code timeoutSeconds}. */
+    List<Address> findByUserIdWithTimeout(@ShardKey Long userId, int timeoutSeconds);
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.user.repository;
+
+import com.ecommerce.user.entity.Address;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.List;
+
+class AddressRepositoryCustomImpl implements AddressRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Address> findByUserIdWithTimeout(Long userId, int timeoutSeconds) {
+        return entityManager.createQuery(
+                        "select a from Address a where a.user.id = :userId and a.user.deletedAt is null", Address.class)
+                .setParameter("userId", userId)
+                .setHint(HibernateHints.HINT_TIMEOUT, timeoutSeconds)
+                .getResultList();
+    }
+}
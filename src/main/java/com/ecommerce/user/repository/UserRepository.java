@@ -1,13 +1,79 @@
 package com.ecommerce.user.repository;
 
 import com.ecommerce.user.entity.User;
+import com.ecommerce.user.sharding.ShardKey;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    Optional<User> findByUsername(@ShardKey(ShardKey.Type.USERNAME) String username);
 
-    Optional<User> findByEmail(String email);
+    Optional<User> findByEmail(@ShardKey(ShardKey.Type.EMAIL) String email);
 
     Optional<User> findByVerificationToken(String verificationToken);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.deletedAt = :deletedAt, u.updatedAt = :deletedAt where u.id = :id"
+            + " and u.deletedAt is null")
+    int markDeleted(@ShardKey @Param("id") Long id, @Param("deletedAt") long deletedAt);
+
+    @Query(value = "SELECT id FROM users WHERE deleted_at < :deletedBefore ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findDeletedIds(@Param("deletedBefore") long deletedBefore, @Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM users WHERE id > :afterId AND is_verified = false AND deleted_at IS NULL"
+            + " AND created_at < :createdBefore ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findUnverifiedIdsCreatedBefore(@Param("afterId") long afterId,
+            @Param("createdBefore") long createdBefore, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.deletedAt = :deletedAt, u.updatedAt = :deletedAt where u.id in :ids"
+            + " and u.isVerified = false and u.deletedAt is null and u.createdAt < :createdBefore")
+    int markUnverifiedDeleted(@Param("ids") Collection<Long> ids, @Param("createdBefore") long createdBefore,
+            @Param("deletedAt") long deletedAt);
+
+    @Query(value = "SELECT COUNT(*) FROM users WHERE deleted_at IS NOT NULL AND (username = :username OR email = :email)",
+            nativeQuery = true)
+    long countDeletedHolding(@Param("username") String username, @Param("email") String email);
+
+    @Query(value = "SELECT id FROM users WHERE id IN (:ids) AND deleted_at = :deletedAt", nativeQuery = true)
+    List<Long> findIdsDeletedAt(@Param("ids") Collection<Long> ids, @Param("deletedAt") long deletedAt);
+
+    /**
+     * Bumps the change feed watermark of a user whose addresses changed.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.updatedAt = :updatedAt where u.id = :id")
+    int touch(@ShardKey @Param("id") Long id, @Param("updatedAt") long updatedAt);
+
+    @Query("select coalesce(u.updatedAt, 0) from User u where u.id = :id")
+    Optional<Long> findUpdatedAtById(@ShardKey @Param("id") Long id);
+
+    @Query("select u from User u where u.id > :afterId order by u.id")
+    List<User> findPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Users, tombstoned ones included, changed after {@code (since, afterId)} and no later than {@code until},
+     * in {@code (updated_at, id)} order.
+     */
+    @Query(value = "SELECT * FROM users WHERE updated_at <= :until"
+            + " AND (updated_at > :since OR (updated_at = :since AND id > :afterId))"
+            + " ORDER BY updated_at, id LIMIT :limit", nativeQuery = true)
+    List<User> findChanges(@Param("since") long since, @Param("afterId") long afterId, @Param("until") long until,
+            @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id IN (:ids)", nativeQuery = true)
+    int purgeByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,12 @@
+package com.ecommerce.user.repository;
+
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.sharding.ShardKey;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /** {@code findById} whose statement the driver cancels after {@code timeoutSeconds}. */
+    Optional<User> findByIdWithTimeout(@ShardKey Long id, int timeoutSeconds);
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.user.repository;
+
+import com.ecommerce.user.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Optional;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByIdWithTimeout(Long id, int timeoutSeconds) {
+        return entityManager.createQuery("select u from User u where u.id = :id", User.class)
+                .setParameter("id", id)
+                .setHint(HibernateHints.HINT_TIMEOUT, timeoutSeconds)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+}
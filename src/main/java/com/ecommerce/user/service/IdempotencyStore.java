@@ -0,0 +1,187 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.exception.IdempotencyKeyInProgressException;
+import com.ecommerce.user.exception.IdempotencyKeyMismatchException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of requests carrying an {@code Idempotency-Key} header so gateway retries
+ * replay the first response instead of re-running the write. Keys are scoped per client and bound
+ * to a hash of the request body: reusing a key with a different body is rejected rather than
+ * replayed. Concurrent duplicates wait, up to {@code waitTimeout}, for the execution already in
+ * flight. Completed entries expire after a fixed TTL and at most {@code maxEntries} of them are
+ * kept; in-flight entries are never evicted, and failed executions are forgotten so they can be
+ * retried.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Duration waitTimeout;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Insertion order equals expiry order because every entry gets the same TTL
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(ObjectMapper objectMapper,
+            @Value("${idempotency.ttl:PT10M}") Duration ttl,
+            @Value("${idempotency.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.wait-timeout:PT10S}") Duration waitTimeout) {
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.waitTimeout = waitTimeout;
+    }
+
+    private record Entry(byte[] fingerprint, CompletableFuture<Object> result, long expiresAt) {
+    }
+
+    /**
+     * Runs {@code action} once per client, scope and key. {@code request} is the body the key is
+     * bound to and may be {@code null} for requests without one.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String scope, Object request, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String scopedKey = client() + ":" + scope + ":" + key;
+        byte[] fingerprint = fingerprint(request);
+        Entry created = new Entry(fingerprint, new CompletableFuture<>(),
+                System.currentTimeMillis() + ttl.toMillis());
+        Entry existing;
+
+        lock.lock();
+        try {
+            evictExpired(System.currentTimeMillis());
+            existing = entries.get(scopedKey);
+            if (existing == null) {
+                entries.put(scopedKey, created);
+                if (entries.size() > maxEntries) {
+                    evictEldestCompleted();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (existing != null) {
+            if (!MessageDigest.isEqual(existing.fingerprint(), fingerprint)) {
+                throw new IdempotencyKeyMismatchException(
+                        "Idempotency-Key was already used with a different request body");
+            }
+            log.debug("Replaying idempotent {} request", scope);
+            return (T) await(existing, scope);
+        }
+
+        try {
+            T value = action.get();
+            created.result().complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                entries.remove(scopedKey, created);
+            } finally {
+                lock.unlock();
+            }
+            created.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(Entry existing, String scope) {
+        try {
+            return existing.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(
+                    "A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(
+                    "Interrupted while waiting for idempotent " + scope + " request");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static String client() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return "anonymous";
+        }
+        return authentication.getName();
+    }
+
+    private byte[] fingerprint(Object request) {
+        if (request == null) {
+            return NO_BODY;
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to fingerprint idempotent request", e);
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.expiresAt() > now) {
+                return;
+            }
+            if (entry.result().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void evictEldestCompleted() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().result().isDone()) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
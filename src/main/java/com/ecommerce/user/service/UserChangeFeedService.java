@@ -0,0 +1,143 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.dto.UserChange;
+import com.ecommerce.user.dto.UserChangesResponse;
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.exception.WatermarkExpiredException;
+import com.ecommerce.user.repository.AddressRepository;
+import com.ecommerce.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Lets downstream replicas bootstrap from a snapshot and then resync from a watermark. The watermark is a
+ * {@code users.updated_at} value that lags the clock by {@code user.changes.settle-time}, so every write
+ * stamped at or before it has committed by the time it is handed out. Address changes bump their user's
+ * {@code updatedAt}, and the user is always shipped with its full address list.
+ */
+@Service
+@Slf4j
+public class UserChangeFeedService {
+
+    public static final String WATERMARK_HEADER = "X-Watermark";
+
+    private static final Comparator<User> CHANGE_ORDER =
+            Comparator.comparing(User::getUpdatedAt).thenComparing(User::getId);
+
+    private final UserRepository userRepository;
+    private final AddressRepository addressRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration settleTime;
+    private final Duration tombstoneRetention;
+    private final int pageSize;
+
+    public UserChangeFeedService(UserRepository userRepository, AddressRepository addressRepository,
+            ObjectMapper objectMapper,
+            @Value("${user.changes.settle-time:PT5S}") Duration settleTime,
+            @Value("${user.deletion.tombstone-retention:PT1H}") Duration tombstoneRetention,
+            @Value("${user.changes.page-size:500}") int pageSize) {
+        this.userRepository = userRepository;
+        this.addressRepository = addressRepository;
+        this.objectMapper = objectMapper;
+        this.settleTime = settleTime;
+        this.tombstoneRetention = tombstoneRetention;
+        this.pageSize = pageSize;
+    }
+
+    public long currentWatermark() {
+        return System.currentTimeMillis() - settleTime.toMillis();
+    }
+
+    /**
+     * Users changed after {@code since} (and after {@code afterId} within that same millisecond, when paging),
+     * up to the current watermark. Deleted users are reported while their tombstone is retained, so a
+     * {@code since} older than the retention window can no longer be served.
+     */
+    public UserChangesResponse getChanges(long since, Long afterId, Integer limit) {
+        long until = currentWatermark();
+        if (since < until - tombstoneRetention.toMillis()) {
+            throw new WatermarkExpiredException("Watermark " + since
+                    + " is older than the deletion retention window; reload from /api/users/snapshot");
+        }
+        int size = limit == null ? pageSize : Math.max(1, Math.min(limit, pageSize));
+
+        // With sharding every shard returns up to a full page; keep the earliest so none are skipped
+        List<User> users = userRepository.findChanges(since, afterId == null ? Long.MAX_VALUE : afterId, until, size)
+                .stream().sorted(CHANGE_ORDER).limit(size).toList();
+        List<UserChange> changes = toChanges(users);
+        if (users.size() < size) {
+            return new UserChangesResponse(changes, Math.max(since, until), null, false);
+        }
+        User last = users.get(users.size() - 1);
+        return new UserChangesResponse(changes, last.getUpdatedAt(), last.getId(), true);
+    }
+
+    /**
+     * Streams every live user as gzip-compressed JSON lines, one page at a time. Pages are read at different
+     * moments; anything that changes meanwhile is stamped after the watermark taken before the export
+     * started, so the change feed picks it up from there.
+     */
+    public void writeSnapshot(OutputStream body) throws IOException {
+        long started = System.nanoTime();
+        long exported = 0;
+        GZIPOutputStream gzip = new GZIPOutputStream(body, 64 * 1024);
+        try (SequenceWriter writer = objectMapper.writerFor(UserChange.class)
+                .withRootValueSeparator("\n")
+                .writeValues(gzip)) {
+            long afterId = 0;
+            List<User> page;
+            do {
+                page = userRepository.findPageAfter(afterId, Limit.of(pageSize)).stream()
+                        .sorted(Comparator.comparing(User::getId)).limit(pageSize).toList();
+                writer.writeAll(toChanges(page));
+                exported += page.size();
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == pageSize);
+        }
+        log.info("Exported snapshot of {} users in {} ms", exported, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private List<UserChange> toChanges(List<User> users) {
+        List<Long> liveIds = users.stream().filter(u -> u.getDeletedAt() == null).map(User::getId).toList();
+        Map<Long, List<Address>> addresses = liveIds.isEmpty() ? Map.of()
+                : addressRepository.findByUserIdIn(liveIds).stream()
+                        .collect(Collectors.groupingBy(a -> a.getUser().getId()));
+        return users.stream().map(user -> toChange(user, addresses.getOrDefault(user.getId(), List.of()))).toList();
+    }
+
+    private static UserChange toChange(User user, List<Address> addresses) {
+        if (user.getDeletedAt() != null) {
+            return UserChange.builder().id(user.getId()).updatedAt(user.getUpdatedAt()).deleted(true).build();
+        }
+        return UserChange.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .phoneNumber(user.getPhoneNumber())
+                .address(user.getAddress())
+                .role(user.getRole())
+                .verified(user.isVerified())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .addresses(addresses)
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.diagnostics.KafkaPublishEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@RequiredArgsConstructor
+public class UserEventPublisher {
+
+    public static final String USER_EVENTS_TOPIC = "user-events";
+    public static final String EMAIL_VERIFICATION_TOPIC = "emailVerificationTopic";
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    public void send(String topic, String key, String message, String subject) {
+        new KafkaPublishEvent(topic, key).recordUntilAcknowledged(subject, () -> kafkaTemplate.send(topic, key, message));
+    }
+
+    /**
+     * Hands every message to the producer without waiting on each one, then flushes once so they go out
+     * in as few produce requests as the producer's batch size allows.
+     */
+    public void sendAll(String topic, String key, Collection<String> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        new KafkaPublishEvent(topic, key).recordUntilAcknowledged(messages.size() + " messages", () -> {
+            CompletableFuture<?>[] sends = messages.stream()
+                    .map(message -> kafkaTemplate.send(topic, key, message))
+                    .toArray(CompletableFuture[]::new);
+            kafkaTemplate.flush();
+            return CompletableFuture.allOf(sends);
+        });
+    }
+}
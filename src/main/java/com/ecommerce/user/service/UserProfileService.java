@@ -0,0 +1,216 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.dto.UserProfileResponse;
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.exception.UserNotFoundException;
+import com.ecommerce.user.repository.AddressRepository;
+import com.ecommerce.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves the account page in one call. The user and its addresses are loaded in parallel on virtual threads
+ * under a single {@code user.profile.deadline}; whatever has not arrived by then is cancelled, left out and the
+ * profile marked partial. The user's {@code updatedAt}, which address writes bump as well, versions the whole
+ * profile. Complete profiles are kept in an LRU of {@code user.profile.cache-size} entries and revalidated with a
+ * primary key lookup of that version; on a miss the version comes from the fetched user itself. A version
+ * younger than {@code user.changes.settle-time} may belong to a write still committing, so those profiles get
+ * no ETag and are not cached.
+ */
+@Service
+@Slf4j
+public class UserProfileService {
+
+    private final UserRepository userRepository;
+    private final AddressRepository addressRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration deadline;
+    private final Duration settleTime;
+    private final int cacheSize;
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, UserProfileResponse> cache;
+
+    public UserProfileService(UserRepository userRepository, AddressRepository addressRepository,
+            MeterRegistry meterRegistry,
+            @Value("${user.profile.deadline:PT0.5S}") Duration deadline,
+            @Value("${user.changes.settle-time:PT5S}") Duration settleTime,
+            @Value("${user.profile.cache-size:10000}") int cacheSize) {
+        this.userRepository = userRepository;
+        this.addressRepository = addressRepository;
+        this.meterRegistry = meterRegistry;
+        this.deadline = deadline;
+        this.settleTime = settleTime;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserProfileResponse> eldest) {
+                return size() > UserProfileService.this.cacheSize;
+            }
+        };
+    }
+
+    /** {@code profile} is null when {@code ifNoneMatch} already names the current version. */
+    public record Result(UserProfileResponse profile, String etag) {
+        public boolean notModified() {
+            return profile == null;
+        }
+    }
+
+    public Result getProfile(Long id, String ifNoneMatch) {
+        long started = System.currentTimeMillis();
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        UserProfileResponse cached = cached(id);
+        if (cached != null) {
+            long version = userRepository.findUpdatedAtById(id).orElseThrow(() -> {
+                evict(id);
+                return new UserNotFoundException("User not found with id: " + id);
+            });
+            if (version == cached.getVersion()) {
+                return respond(cached, etag(id, version), ifNoneMatch, "hit");
+            }
+        }
+
+        UserProfileResponse profile = fetch(id, deadlineNanos);
+        if (profile.getStatus() == UserProfileResponse.Status.PARTIAL) {
+            count("partial");
+            return new Result(profile, null);
+        }
+        if (profile.getVersion() > started - settleTime.toMillis()) {
+            count("miss");
+            return new Result(profile, null);
+        }
+        lock.lock();
+        try {
+            cache.put(id, profile);
+        } finally {
+            lock.unlock();
+        }
+        return respond(profile, etag(id, profile.getVersion()), ifNoneMatch, "miss");
+    }
+
+    @PreDestroy
+    void close() {
+        fetchExecutor.shutdownNow();
+    }
+
+    private Result respond(UserProfileResponse profile, String etag, String ifNoneMatch, String result) {
+        if (matches(ifNoneMatch, etag)) {
+            count("not_modified");
+            return new Result(null, etag);
+        }
+        count(result);
+        return new Result(profile, etag);
+    }
+
+    private UserProfileResponse fetch(Long id, long deadlineNanos) {
+        // JDBC timeouts are whole seconds; the statement is cancelled at the driver soon after the deadline
+        int timeoutSeconds = (int) Math.max(1, Math.ceil((deadlineNanos - System.nanoTime()) / 1e9));
+        Future<Optional<User>> userTask =
+                fetchExecutor.submit(() -> userRepository.findByIdWithTimeout(id, timeoutSeconds));
+        Future<List<Address>> addressesTask =
+                fetchExecutor.submit(() -> addressRepository.findByUserIdWithTimeout(id, timeoutSeconds));
+
+        List<String> missing = new ArrayList<>();
+        Optional<User> user = await(userTask, deadlineNanos, "user", missing);
+        List<Address> addresses = await(addressesTask, deadlineNanos, "addresses", missing);
+        if (user != null && user.isEmpty()) {
+            throw new UserNotFoundException("User not found with id: " + id);
+        }
+
+        UserProfileResponse.UserProfileResponseBuilder profile = UserProfileResponse.builder()
+                .status(missing.isEmpty() ? UserProfileResponse.Status.COMPLETE : UserProfileResponse.Status.PARTIAL)
+                .missing(missing.isEmpty() ? null : missing)
+                .addresses(addresses);
+        if (addresses != null) {
+            profile.defaultAddress(addresses.stream().filter(Address::isDefault).findFirst().orElse(null));
+        }
+        if (user != null) {
+            User u = user.get();
+            profile.version(u.getUpdatedAt() == null ? 0 : u.getUpdatedAt())
+                    .id(u.getId())
+                    .username(u.getUsername())
+                    .email(u.getEmail())
+                    .firstName(u.getFirstName())
+                    .lastName(u.getLastName())
+                    .phoneNumber(u.getPhoneNumber())
+                    .role(u.getRole())
+                    .verified(u.isVerified())
+                    .createdAt(u.getCreatedAt());
+        }
+        return profile.build();
+    }
+
+    private <T> T await(Future<T> task, long deadlineNanos, String section, List<String> missing) {
+        try {
+            return task.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            log.warn("Profile section {} missed the {} deadline", section, deadline);
+        } catch (ExecutionException e) {
+            log.warn("Profile section {} failed", section, e.getCause());
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        missing.add(section);
+        return null;
+    }
+
+    private UserProfileResponse cached(Long id) {
+        lock.lock();
+        try {
+            return cache.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evict(Long id) {
+        lock.lock();
+        try {
+            cache.remove(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("user.profile.requests", "result", result).increment();
+    }
+
+    private static String etag(Long id, long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,150 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.repository.AddressRepository;
+import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.sharding.ShardDirectory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tombstones accounts that were never verified within {@code user.deletion.unverified-max-age}, and physically
+ * removes tombstoned users once they are older than {@code user.deletion.tombstone-retention}, which keeps
+ * deletions visible to the change feed for that long. Removal is done in set-based batches: a batch of user
+ * ids, their addresses in chunks of at most {@code address-batch-size} ids, then the users themselves, so no
+ * single statement holds locks for long.
+ */
+@Component
+@Slf4j
+public class UserPurgeJob {
+
+    private final UserRepository userRepository;
+    private final AddressRepository addressRepository;
+    private final UserEventPublisher eventPublisher;
+    private final ObjectProvider<ShardDirectory> shardDirectory;
+    private final int userBatchSize;
+    private final int addressBatchSize;
+    private final Duration unverifiedMaxAge;
+    private final Duration tombstoneRetention;
+    private final Counter purgedUsers;
+    private final Counter purgedAddresses;
+    private final Timer batchTimer;
+    private final Counter unverifiedUsers;
+    private final Timer unverifiedBatchTimer;
+    // Highest id the unverified sweep has walked past, and users per second of the last run that found any
+    private final AtomicLong unverifiedCursor = new AtomicLong();
+    private final AtomicLong unverifiedThroughput = new AtomicLong();
+
+    public UserPurgeJob(UserRepository userRepository, AddressRepository addressRepository,
+            UserEventPublisher eventPublisher, ObjectProvider<ShardDirectory> shardDirectory,
+            MeterRegistry meterRegistry,
+            @Value("${user.deletion.purge-batch-size:100}") int userBatchSize,
+            @Value("${user.deletion.address-batch-size:5000}") int addressBatchSize,
+            @Value("${user.deletion.unverified-max-age:P7D}") Duration unverifiedMaxAge,
+            @Value("${user.deletion.tombstone-retention:PT1H}") Duration tombstoneRetention) {
+        this.userRepository = userRepository;
+        this.addressRepository = addressRepository;
+        this.eventPublisher = eventPublisher;
+        this.shardDirectory = shardDirectory;
+        this.userBatchSize = userBatchSize;
+        this.addressBatchSize = addressBatchSize;
+        this.unverifiedMaxAge = unverifiedMaxAge;
+        this.tombstoneRetention = tombstoneRetention;
+        this.purgedUsers = meterRegistry.counter("user.purge.users");
+        this.purgedAddresses = meterRegistry.counter("user.purge.addresses");
+        this.batchTimer = meterRegistry.timer("user.purge.batch");
+        this.unverifiedUsers = meterRegistry.counter("user.purge.unverified.users");
+        this.unverifiedBatchTimer = meterRegistry.timer("user.purge.unverified.batch");
+        meterRegistry.gauge("user.purge.unverified.cursor", unverifiedCursor);
+        meterRegistry.gauge("user.purge.unverified.throughput", unverifiedThroughput);
+    }
+
+    @Scheduled(fixedDelayString = "${user.deletion.purge-interval:PT30S}")
+    public void purgeDeletedUsers() {
+        long deletedBefore = System.currentTimeMillis() - tombstoneRetention.toMillis();
+        List<Long> ids;
+        do {
+            ids = userRepository.findDeletedIds(deletedBefore, userBatchSize);
+            if (!ids.isEmpty()) {
+                List<Long> batch = ids;
+                batchTimer.record(() -> purge(batch));
+            }
+        } while (ids.size() >= userBatchSize);
+    }
+
+    /**
+     * Walks unverified users created before the cutoff in id order, one chunk at a time. Each chunk is
+     * tombstoned with a guarded update, so a late verification cannot race the sweep, and announced as
+     * {@code USER_DELETED} events flushed together. {@link #purgeDeletedUsers} removes the rows later.
+     */
+    @Scheduled(fixedDelayString = "${user.deletion.unverified-purge-interval:PT1H}")
+    public void purgeStaleUnverifiedUsers() {
+        long started = System.nanoTime();
+        long createdBefore = System.currentTimeMillis() - unverifiedMaxAge.toMillis();
+        long cursor = 0;
+        long total = 0;
+
+        List<Long> candidates;
+        do {
+            // With sharding every shard returns up to a full chunk; keep the lowest ids so none are skipped
+            candidates = userRepository.findUnverifiedIdsCreatedBefore(cursor, createdBefore, userBatchSize)
+                    .stream().sorted().limit(userBatchSize).toList();
+            if (!candidates.isEmpty()) {
+                cursor = candidates.get(candidates.size() - 1);
+                List<Long> chunk = candidates;
+                total += unverifiedBatchTimer.record(() -> tombstoneUnverified(chunk, createdBefore));
+                unverifiedCursor.set(cursor);
+            }
+        } while (candidates.size() >= userBatchSize);
+
+        if (total > 0) {
+            double seconds = (System.nanoTime() - started) / 1e9;
+            unverifiedThroughput.set(Math.round(total / seconds));
+            log.info("Tombstoned {} unverified users created before {} in {} ms", total, createdBefore,
+                    Math.round(seconds * 1000));
+        }
+    }
+
+    private long tombstoneUnverified(List<Long> candidates, long createdBefore) {
+        long deletedAt = System.currentTimeMillis();
+        if (userRepository.markUnverifiedDeleted(candidates, createdBefore, deletedAt) == 0) {
+            return 0;
+        }
+        List<Long> ids = userRepository.findIdsDeletedAt(candidates, deletedAt);
+        unverifiedUsers.increment(ids.size());
+        try {
+            eventPublisher.sendAll(UserEventPublisher.USER_EVENTS_TOPIC, "USER_DELETED",
+                    ids.stream().map(String::valueOf).toList());
+        } catch (RuntimeException e) {
+            // The users are tombstoned either way; keep walking rather than retry the whole run
+            log.error("Failed to publish USER_DELETED for {} unverified users", ids.size(), e);
+        }
+        return ids.size();
+    }
+
+    private void purge(List<Long> userIds) {
+        long addresses = 0;
+        List<Long> addressIds;
+        do {
+            addressIds = addressRepository.findIdsByUserIds(userIds, addressBatchSize);
+            if (!addressIds.isEmpty()) {
+                addresses += addressRepository.purgeByIds(addressIds);
+            }
+        } while (addressIds.size() >= addressBatchSize);
+
+        int users = userRepository.purgeByIds(userIds);
+        shardDirectory.ifAvailable(directory -> directory.releaseUsers(userIds));
+        purgedAddresses.increment(addresses);
+        purgedUsers.increment(users);
+        log.info("Purged {} deleted users and {} addresses", users, addresses);
+    }
+}
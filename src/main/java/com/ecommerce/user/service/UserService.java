@@ -1,6 +1,11 @@
 package com.ecommerce.user.service;
 
+import com.ecommerce.user.audit.LoginAuditTrail;
+import com.ecommerce.user.diagnostics.LoginValidationEvent;
+import com.ecommerce.user.diagnostics.UserRegistrationEvent;
+import com.ecommerce.user.diagnostics.UserVerificationEvent;
 import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.LoginOutcome;
 import com.ecommerce.user.entity.User;
 import com.ecommerce.user.exception.InvalidCredentialsException;
 import com.ecommerce.user.exception.UserNotFoundException;
@@ -8,30 +13,49 @@ import com.ecommerce.user.repository.AddressRepository;
 import com.ecommerce.user.repository.UserRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserService {
 
     private final UserRepository userRepository;
     private final AddressRepository addressRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final UserEventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
     private final PasswordEncoder passwordEncoder;
-
-    private static final String USER_EVENTS_TOPIC = "user-events";
-    private static final String EMAIL_VERIFICATION_TOPIC = "emailVerificationTopic";
+    private final LoginAuditTrail loginAudit;
+    // Concurrent lookups of the same hot account share one query. Every caller gets its own detached copy of
+    // the result, so no entity instance is shared between persistence contexts; write paths load their own.
+    private final SingleFlight<Long, Optional<User>> usersById;
+    private final SingleFlight<String, Optional<User>> usersByUsername;
+
+    public UserService(UserRepository userRepository, AddressRepository addressRepository,
+            UserEventPublisher eventPublisher, ObjectMapper objectMapper, PasswordEncoder passwordEncoder,
+            LoginAuditTrail loginAudit, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.addressRepository = addressRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.loginAudit = loginAudit;
+        this.usersById = new SingleFlight<>("id", meterRegistry);
+        this.usersByUsername = new SingleFlight<>("username", meterRegistry);
+    }
 
     public String registerUser(com.ecommerce.user.dto.UserRegistrationRequest request) {
+        return new UserRegistrationEvent().record(request.getUsername(), () -> doRegisterUser(request));
+    }
+
+    private String doRegisterUser(com.ecommerce.user.dto.UserRegistrationRequest request) {
         log.info("Initiating registration for user: {}", request.getUsername());
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new com.ecommerce.user.exception.UserAlreadyExistsException(
@@ -72,22 +96,34 @@ public class UserService {
         String token = UUID.randomUUID().toString();
         credential.setVerificationToken(token);
         log.info("Saving user credential with verification token: {}", request.getEmail());
-        userRepository.save(credential);
+        try {
+            userRepository.save(credential);
+        } catch (DataIntegrityViolationException e) {
+            // Not visible to the checks above, but a deleted account keeps its username and email until purged
+            if (userRepository.countDeletedHolding(request.getUsername(), request.getEmail()) > 0) {
+                throw new com.ecommerce.user.exception.UserAlreadyExistsException(
+                        "Username or email is still held by an account that was deleted and not yet purged");
+            }
+            throw e;
+        }
 
         // Send Kafka event for email verification
         try {
             String message = credential.getEmail() + "," + token + "," + credential.getUsername() + ","
                     + credential.getRole().name();
-            kafkaTemplate.send(EMAIL_VERIFICATION_TOPIC, message);
+            eventPublisher.send(UserEventPublisher.EMAIL_VERIFICATION_TOPIC, null, message, credential.getUsername());
         } catch (Exception e) {
-            System.err.println(
-                    "Warning: Could not send Kafka email verification event. Kafka might be down. " + e.getMessage());
+            log.warn("Could not send Kafka email verification event. Kafka might be down. {}", e.getMessage());
         }
 
         return "Registration successful! Please check your email to verify your account.";
     }
 
     public String verifyUser(String token, String email, String usertype) {
+        return new UserVerificationEvent().record(email, () -> doVerifyUser(token, email));
+    }
+
+    private String doVerifyUser(String token, String email) {
         log.info("Verifying user: {}", email);
         User user = userRepository.findByVerificationToken(token)
                 .orElseThrow(() -> new RuntimeException("Invalid verification token"));
@@ -116,18 +152,66 @@ public class UserService {
     }
 
     public User getUserById(Long id) {
-        return userRepository.findById(id)
+        // The shared result is itself a copy so it can carry the addresses without touching the managed collection
+        return usersById.execute(id, () -> userRepository.findById(id)
+                        .map(user -> detachedCopy(user, addressRepository.findByUserId(id))))
+                .map(user -> detachedCopy(user, user.getAddresses()))
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
 
+    // Credentials and roles only: the returned user carries no addresses
     public User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return findUserByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
     }
 
+    private Optional<User> findUserByUsername(String username) {
+        return usersByUsername.execute(username, () -> userRepository.findByUsername(username))
+                .map(user -> detachedCopy(user, List.of()));
+    }
+
+    private static User detachedCopy(User user, List<Address> addresses) {
+        User copy = User.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .phoneNumber(user.getPhoneNumber())
+                .address(user.getAddress())
+                .isVerified(user.isVerified())
+                .verificationToken(user.getVerificationToken())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .deletedAt(user.getDeletedAt())
+                .role(user.getRole())
+                .build();
+        for (Address address : addresses) {
+            copy.getAddresses().add(Address.builder()
+                    .id(address.getId())
+                    .fullName(address.getFullName())
+                    .addressLine(address.getAddressLine())
+                    .city(address.getCity())
+                    .state(address.getState())
+                    .zipCode(address.getZipCode())
+                    .phone(address.getPhone())
+                    .isDefault(address.isDefault())
+                    .updatedAt(address.getUpdatedAt())
+                    .user(copy)
+                    .build());
+        }
+        return copy;
+    }
+
+    private User loadUserForUpdate(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+    }
+
     public User updateUser(Long id, User updatedUser) {
         log.info("Updating user profile for ID: {}", id);
-        User existingUser = getUserById(id);
+        User existingUser = loadUserForUpdate(id);
 
         if (updatedUser.getFirstName() != null) {
             existingUser.setFirstName(updatedUser.getFirstName());
@@ -147,17 +231,20 @@ public class UserService {
         // Publish User Updated Event
         try {
             String userJson = objectMapper.writeValueAsString(savedUser);
-            kafkaTemplate.send(USER_EVENTS_TOPIC, "USER_UPDATED", userJson);
+            eventPublisher.send(UserEventPublisher.USER_EVENTS_TOPIC, "USER_UPDATED", userJson, String.valueOf(id));
         } catch (JsonProcessingException e) {
-            e.printStackTrace();
+            log.error("Could not serialize USER_UPDATED event for user {}", id, e);
         }
 
         return savedUser;
     }
 
+    // Only tombstones the user; its username and email stay taken until UserPurgeJob removes the row
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
-        kafkaTemplate.send(USER_EVENTS_TOPIC, "USER_DELETED", String.valueOf(id));
+        if (userRepository.markDeleted(id, System.currentTimeMillis()) == 0) {
+            throw new UserNotFoundException("User not found with id: " + id);
+        }
+        eventPublisher.send(UserEventPublisher.USER_EVENTS_TOPIC, "USER_DELETED", String.valueOf(id), String.valueOf(id));
     }
 
     // Address Management
@@ -166,7 +253,7 @@ public class UserService {
     }
 
     public Address addAddress(Long userId, Address address) {
-        User user = getUserById(userId);
+        User user = loadUserForUpdate(userId);
         address.setUser(user);
         if (address.isDefault()) {
             // Unset other defaults
@@ -178,7 +265,9 @@ public class UserService {
                 }
             });
         }
-        return addressRepository.save(address);
+        Address saved = addressRepository.save(address);
+        userRepository.touch(userId, System.currentTimeMillis());
+        return saved;
     }
 
     public Address updateAddress(Long addressId, Address updatedAddress) {
@@ -206,27 +295,45 @@ public class UserService {
             existingAddress.setDefault(false);
         }
 
-        return addressRepository.save(existingAddress);
+        Address saved = addressRepository.save(existingAddress);
+        userRepository.touch(saved.getUser().getId(), System.currentTimeMillis());
+        return saved;
     }
 
     public void deleteAddress(Long addressId) {
-        addressRepository.deleteById(addressId);
+        addressRepository.findById(addressId).ifPresent(address -> {
+            addressRepository.delete(address);
+            userRepository.touch(address.getUser().getId(), System.currentTimeMillis());
+        });
     }
 
     public com.ecommerce.user.dto.UserDetailResponse validateUserCredentials(
             com.ecommerce.user.dto.UserLoginRequest request) {
+        return new LoginValidationEvent().record(request.getUsername(), () -> doValidateUserCredentials(request));
+    }
+
+    private com.ecommerce.user.dto.UserDetailResponse doValidateUserCredentials(
+            com.ecommerce.user.dto.UserLoginRequest request) {
         log.info("Validating credentials for user: {}", request.getUsername());
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        Optional<User> found = findUserByUsername(request.getUsername());
+        if (found.isEmpty()) {
+            loginAudit.record(request.getUsername(), null, LoginOutcome.USER_NOT_FOUND);
+            throw new UserNotFoundException("User not found");
+        }
+        User user = found.get();
 
         if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            loginAudit.record(user.getUsername(), user.getId(), LoginOutcome.BAD_PASSWORD);
             throw new InvalidCredentialsException("Invalid password");
         }
 
         if (!user.isVerified()) {
+            loginAudit.record(user.getUsername(), user.getId(), LoginOutcome.UNVERIFIED);
             throw new RuntimeException("User is not verified. Please verify your email first.");
         }
 
+        loginAudit.record(user.getUsername(), user.getId(), LoginOutcome.SUCCESS);
+
         return com.ecommerce.user.dto.UserDetailResponse.builder()
                 .userId(user.getId())
                 .isVerified(user.isVerified())
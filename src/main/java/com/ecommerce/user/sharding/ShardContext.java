@@ -0,0 +1,37 @@
+package com.ecommerce.user.sharding;
+
+/**
+ * Thread-bound shard selection read by {@link ShardRoutingDataSource} when a connection is acquired.
+ * A shard is only bound for the duration of a call routed by {@link ShardRoutingAspect}; anything that
+ * needs a connection outside one, such as a lazy load while serializing the response, fails instead of
+ * guessing which shard the entity came from.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static Integer enter(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void exit(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
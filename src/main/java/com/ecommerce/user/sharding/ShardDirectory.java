@@ -0,0 +1,92 @@
+package com.ecommerce.user.sharding;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Global username and email lookup tables. Besides routing lookups to the right shard, the primary key
+ * on {@code (lookup_type, lookup_key)} keeps usernames and emails unique across all shards.
+ */
+public class ShardDirectory {
+
+    private static final String USERNAME = "USERNAME";
+    private static final String EMAIL = "EMAIL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public ShardDirectory(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS user_shard_directory ("
+                + "lookup_type VARCHAR(16) NOT NULL, "
+                + "lookup_key VARCHAR(255) NOT NULL, "
+                + "shard INT NOT NULL, "
+                + "user_id BIGINT, "
+                + "PRIMARY KEY (lookup_type, lookup_key), "
+                + "INDEX idx_user_shard_directory_user_id (user_id))");
+    }
+
+    public Integer shardForUsername(String username) {
+        return find(USERNAME, username);
+    }
+
+    public Integer shardForEmail(String email) {
+        return find(EMAIL, email);
+    }
+
+    /**
+     * Claims the username and email for a user about to be created on {@code shard}.
+     *
+     * @throws DuplicateKeyException if either is already taken
+     */
+    public void reserve(String username, String email, int shard) {
+        insert(USERNAME, username, shard);
+        try {
+            insert(EMAIL, email, shard);
+        } catch (DuplicateKeyException e) {
+            delete(USERNAME, username);
+            throw e;
+        }
+    }
+
+    public void assign(String username, String email, long userId) {
+        jdbcTemplate.update("UPDATE user_shard_directory SET user_id = ? "
+                + "WHERE (lookup_type = ? AND lookup_key = ?) OR (lookup_type = ? AND lookup_key = ?)",
+                userId, USERNAME, username, EMAIL, email);
+    }
+
+    public void release(String username, String email) {
+        delete(USERNAME, username);
+        delete(EMAIL, email);
+    }
+
+    public void releaseUsers(Collection<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            namedJdbcTemplate.update("DELETE FROM user_shard_directory WHERE user_id IN (:ids)",
+                    new MapSqlParameterSource("ids", userIds));
+        }
+    }
+
+    private Integer find(String type, String key) {
+        List<Integer> shards = jdbcTemplate.queryForList(
+                "SELECT shard FROM user_shard_directory WHERE lookup_type = ? AND lookup_key = ?",
+                Integer.class, type, key);
+        return shards.isEmpty() ? null : shards.get(0);
+    }
+
+    private void insert(String type, String key, int shard) {
+        jdbcTemplate.update("INSERT INTO user_shard_directory (lookup_type, lookup_key, shard) VALUES (?, ?, ?)",
+                type, key, shard);
+    }
+
+    private void delete(String type, String key) {
+        jdbcTemplate.update("DELETE FROM user_shard_directory WHERE lookup_type = ? AND lookup_key = ?", type, key);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.user.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the repository method parameter that decides which shard a call is routed to.
+ * Calls without a routable argument are scattered to every shard and their results merged.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+
+    Type value() default Type.ID;
+
+    enum Type {
+        /** A user or address id; the shard is derived from the id itself. */
+        ID,
+        /** Resolved through the global username directory. */
+        USERNAME,
+        /** Resolved through the global email directory. */
+        EMAIL
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.user.sharding;
+
+/**
+ * Maps users and addresses to shards. Each shard hands out identity values interleaved with the
+ * others (shard {@code s} of {@code n} generates {@code s + 1, s + 1 + n, ...}), so an id alone
+ * identifies its shard and ids stay unique across shards. New users are placed by hashing the username.
+ */
+public class ShardRouter {
+
+    private final int shardCount;
+
+    public ShardRouter(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardForId(long id) {
+        return (int) Math.floorMod(id - 1, (long) shardCount);
+    }
+
+    public int shardForNewUser(String username) {
+        int h = username.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), shardCount);
+    }
+
+    /** The first identity value greater than {@code currentMax} that belongs to {@code shard}. */
+    public long nextIdentity(int shard, long currentMax) {
+        long offset = shard + 1;
+        return currentMax < offset ? offset : offset + ((currentMax - offset) / shardCount + 1) * shardCount;
+    }
+}
@@ -0,0 +1,221 @@
+package com.ecommerce.user.sharding;
+
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.Hibernate;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Routes {@code UserRepository} and {@code AddressRepository} calls to a shard. Calls are routed by a
+ * {@link ShardKey} parameter, by the id of the entity being saved or deleted, or by the id passed to the
+ * inherited {@code *ById} methods. Anything else is run on every shard in parallel and the results merged.
+ *
+ * <p>Routing happens when the repository opens its transaction, so these repositories must not be
+ * called inside an outer transaction spanning more than one shard.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ShardRoutingAspect {
+
+    private static final Set<String> BY_ID_METHODS = Set.of("findById", "existsById", "deleteById",
+            "getReferenceById", "getById");
+
+    private final ShardRouter router;
+    private final ShardDirectory directory;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService scatterExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Around("execution(* com.ecommerce.user.repository.UserRepository.*(..))"
+            + " || execution(* com.ecommerce.user.repository.AddressRepository.*(..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object[] args = joinPoint.getArgs();
+
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < args.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ShardKey shardKey) {
+                    if (args[i] == null) {
+                        throw new IllegalArgumentException("Missing shard key for " + method.getName());
+                    }
+                    Integer shard = resolve(shardKey.value(), args[i]);
+                    return shard == null ? empty(method.getReturnType()) : onShard(shard, joinPoint);
+                }
+            }
+        }
+
+        String name = method.getName();
+        if (args.length == 1 && BY_ID_METHODS.contains(name) && args[0] instanceof Long id) {
+            Object result = onShard(router.shardForId(id), joinPoint);
+            if (name.equals("deleteById") && joinPoint.getThis() instanceof UserRepository) {
+                directory.releaseUsers(List.of(id));
+            }
+            return result;
+        }
+        if (args.length == 1 && args[0] instanceof User user) {
+            return routeUser(user, name, joinPoint);
+        }
+        if (args.length == 1 && args[0] instanceof Address address) {
+            Long id = address.getId() != null ? address.getId()
+                    : address.getUser() != null ? address.getUser().getId() : null;
+            if (id == null) {
+                throw new IllegalStateException("Cannot route " + name + " for an address without a user");
+            }
+            return onShard(router.shardForId(id), joinPoint);
+        }
+        if (name.startsWith("save")) {
+            throw new IllegalStateException("Cannot route " + name + " to a single shard");
+        }
+        return scatterGather(joinPoint, method.getReturnType());
+    }
+
+    private Object routeUser(User user, String method, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (user.getId() != null) {
+            Object result = onShard(router.shardForId(user.getId()), joinPoint);
+            if (method.startsWith("delete")) {
+                directory.releaseUsers(List.of(user.getId()));
+            }
+            return result;
+        }
+
+        int shard = router.shardForNewUser(user.getUsername());
+        directory.reserve(user.getUsername(), user.getEmail(), shard);
+        try {
+            Object result = onShard(shard, joinPoint);
+            directory.assign(user.getUsername(), user.getEmail(), ((User) result).getId());
+            return result;
+        } catch (Throwable t) {
+            directory.release(user.getUsername(), user.getEmail());
+            throw t;
+        }
+    }
+
+    private Integer resolve(ShardKey.Type type, Object key) {
+        return switch (type) {
+            case ID -> router.shardForId((Long) key);
+            case USERNAME -> directory.shardForUsername((String) key);
+            case EMAIL -> directory.shardForEmail((String) key);
+        };
+    }
+
+    private Object onShard(int shard, ProceedingJoinPoint joinPoint) throws Throwable {
+        Integer previous = ShardContext.enter(shard);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardContext.exit(previous);
+        }
+    }
+
+    private Object scatterGather(ProceedingJoinPoint joinPoint, Class<?> returnType) throws Throwable {
+        List<Future<Object>> futures = new ArrayList<>(router.shardCount());
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int target = shard;
+            futures.add(scatterExecutor.submit(() -> onShardInTransaction(target, joinPoint)));
+        }
+        List<Object> results = new ArrayList<>(futures.size());
+        for (Future<Object> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+        return merge(returnType, results);
+    }
+
+    /**
+     * Runs the call on a worker thread inside its own transaction, initializing the users' address
+     * collections before it ends since the request thread cannot lazy-load them from the right shard later.
+     */
+    private Object onShardInTransaction(int shard, ProceedingJoinPoint joinPoint) throws Exception {
+        Integer previous = ShardContext.enter(shard);
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    Object result = joinPoint.proceed();
+                    initializeAddresses(result);
+                    return result;
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            });
+        } finally {
+            ShardContext.exit(previous);
+        }
+    }
+
+    private static void initializeAddresses(Object result) {
+        if (result instanceof Optional<?> optional) {
+            optional.ifPresent(ShardRoutingAspect::initializeAddresses);
+        } else if (result instanceof Collection<?> collection) {
+            collection.forEach(ShardRoutingAspect::initializeAddresses);
+        } else if (result instanceof User user) {
+            Hibernate.initialize(user.getAddresses());
+        }
+    }
+
+    private static Object merge(Class<?> returnType, List<Object> results) {
+        if (Optional.class.equals(returnType)) {
+            return results.stream()
+                    .map(Optional.class::cast)
+                    .filter(Optional::isPresent)
+                    .findFirst()
+                    .orElse(Optional.empty());
+        }
+        if (Collection.class.isAssignableFrom(returnType) || Iterable.class.equals(returnType)) {
+            List<Object> merged = new ArrayList<>();
+            results.forEach(r -> merged.addAll((Collection<?>) r));
+            return merged;
+        }
+        if (returnType == long.class || returnType == Long.class) {
+            return results.stream().mapToLong(r -> ((Number) r).longValue()).sum();
+        }
+        if (returnType == int.class || returnType == Integer.class) {
+            return results.stream().mapToInt(r -> ((Number) r).intValue()).sum();
+        }
+        if (returnType == boolean.class || returnType == Boolean.class) {
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (returnType == void.class) {
+            return null;
+        }
+        throw new IllegalStateException("Cannot merge shard results of type " + returnType.getName());
+    }
+
+    private static Object empty(Class<?> returnType) {
+        if (Optional.class.equals(returnType)) {
+            return Optional.empty();
+        }
+        if (Collection.class.isAssignableFrom(returnType)) {
+            return List.of();
+        }
+        if (returnType == boolean.class) {
+            return false;
+        }
+        return null;
+    }
+}
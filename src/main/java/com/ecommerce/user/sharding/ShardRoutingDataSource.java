@@ -0,0 +1,70 @@
+package com.ecommerce.user.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections to the shard bound in {@link ShardContext}. While the context starts up and shuts
+ * down, unrouted connections go to shard 0 so Hibernate can build and drop the default shard's schema;
+ * once it is running, asking for a connection without a bound shard is a routing bug and fails.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements SmartLifecycle {
+
+    private final List<HikariDataSource> shards;
+    private volatile boolean enforceRouting;
+
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public DataSource shard(int shard) {
+        return shards.get(shard);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        if (shard == null && enforceRouting) {
+            throw new IllegalStateException("No shard bound to this thread; database access must go through a "
+                    + "routed UserRepository or AddressRepository call");
+        }
+        return shard;
+    }
+
+    @Override
+    public void start() {
+        enforceRouting = true;
+    }
+
+    @Override
+    public void stop() {
+        enforceRouting = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return enforceRouting;
+    }
+
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.user.sharding;
+
+import com.ecommerce.user.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings every shard's schema in line with the entities and sets up interleaved identity columns.
+ * The primary {@link EntityManagerFactory} only applies {@code ddl-auto} to the default shard, so the
+ * remaining shards get the same treatment from a short-lived factory bound to each of them.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    private static final List<String> SHARDED_TABLES = List.of("users", "addresses");
+
+    private final ShardRoutingDataSource dataSource;
+    private final ShardRouter router;
+    // Only injected so the default shard's schema exists before identities are interleaved
+    private final EntityManagerFactory entityManagerFactory;
+    private final JpaProperties jpaProperties;
+    private final HibernateProperties hibernateProperties;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String ddlAuto = hibernateProperties.getDdlAuto();
+        if (ddlAuto != null && !ddlAuto.equals("none") && !ddlAuto.equals("validate")) {
+            // create-drop would drop the schema as soon as the short-lived factory closes
+            String shardDdl = ddlAuto.equals("create-drop") ? "create" : ddlAuto;
+            for (int shard = 1; shard < router.shardCount(); shard++) {
+                applySchema(shard, shardDdl);
+            }
+        }
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            interleaveIdentities(shard);
+        }
+    }
+
+    private void applySchema(int shard, String ddlAuto) {
+        Map<String, Object> properties = hibernateProperties.determineHibernateProperties(
+                jpaProperties.getProperties(), new HibernateSettings());
+        properties.put(AvailableSettings.HBM2DDL_AUTO, ddlAuto);
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource.shard(shard));
+        factory.setPackagesToScan(User.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(properties);
+        factory.setPersistenceUnitName("shard-" + shard + "-schema");
+        factory.afterPropertiesSet();
+        factory.destroy();
+        log.info("Applied schema ({}) to shard {}", ddlAuto, shard);
+    }
+
+    /**
+     * MySQL shards interleave through the {@code auto_increment_*} session variables set on every
+     * connection. H2 has no equivalent, so its identity columns are restarted and re-stepped here.
+     */
+    private void interleaveIdentities(int shard) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource.shard(shard));
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(product)) {
+            return;
+        }
+        for (String table : SHARDED_TABLES) {
+            Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            long next = router.nextIdentity(shard, max == null ? 0 : max);
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET INCREMENT BY " + router.shardCount());
+        }
+    }
+}
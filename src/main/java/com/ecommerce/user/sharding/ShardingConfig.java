@@ -0,0 +1,97 @@
+package com.ecommerce.user.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "user.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    // An open-in-view EntityManager keeps the connection of the request's first repository call, so every
+    // later call in the same request would silently run on that shard
+    public ShardingConfig(@Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException("user.sharding.enabled requires spring.jpa.open-in-view=false");
+        }
+    }
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(ShardingProperties properties) {
+        int shardCount = properties.getShards().size();
+        if (shardCount == 0) {
+            throw new IllegalStateException("user.sharding.enabled is set but no user.sharding.shards are configured");
+        }
+        List<HikariDataSource> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            HikariDataSource shard = build(properties.getShards().get(i), "user-shard-" + i);
+            if (shard.getJdbcUrl().startsWith("jdbc:mysql:")) {
+                shard.setConnectionInitSql("SET SESSION auto_increment_increment = " + shardCount
+                        + ", auto_increment_offset = " + (i + 1));
+            }
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource shardDirectoryDataSource(ShardingProperties properties) {
+        return build(properties.getDirectory(), "user-shard-directory");
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(HikariDataSource shardDirectoryDataSource) {
+        return new ShardDirectory(shardDirectoryDataSource);
+    }
+
+    @Bean
+    public ShardRouter shardRouter(ShardRoutingDataSource dataSource) {
+        return new ShardRouter(dataSource.shardCount());
+    }
+
+    @Bean
+    public ShardRoutingAspect shardRoutingAspect(ShardRouter router, ShardDirectory directory,
+            PlatformTransactionManager transactionManager) {
+        return new ShardRoutingAspect(router, directory, new TransactionTemplate(transactionManager));
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardRoutingDataSource dataSource, ShardRouter router,
+            EntityManagerFactory entityManagerFactory, JpaProperties jpaProperties,
+            HibernateProperties hibernateProperties) {
+        return new ShardSchemaInitializer(dataSource, router, entityManagerFactory, jpaProperties,
+                hibernateProperties);
+    }
+
+    @Bean
+    public ShardContextFilter shardContextFilter() {
+        return new ShardContextFilter();
+    }
+
+    private static HikariDataSource build(ShardingProperties.Database database, String poolName) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(database.getUrl())
+                .username(database.getUsername())
+                .password(database.getPassword())
+                .build();
+        dataSource.setPoolName(poolName);
+        dataSource.setMaximumPoolSize(database.getMaximumPoolSize());
+        return dataSource;
+    }
+}
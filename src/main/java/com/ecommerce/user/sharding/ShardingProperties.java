@@ -0,0 +1,24 @@
+package com.ecommerce.user.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "user.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+    private List<Database> shards = new ArrayList<>();
+    private Database directory = new Database();
+
+    @Data
+    public static class Database {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
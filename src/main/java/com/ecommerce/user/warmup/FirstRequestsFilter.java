@@ -0,0 +1,74 @@
+package com.ecommerce.user.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Times the first {@code user.warmup.first-requests} API requests after startup into
+ * {@code user.warmup.first.requests}, tagged with whether warm-up ran, and logs their percentiles once the
+ * count is reached. Comparing deploys with {@code user.warmup.enabled} on and off shows what warm-up buys.
+ */
+@Slf4j
+public class FirstRequestsFilter extends OncePerRequestFilter {
+
+    private final Timer timer;
+    private final int limit;
+    private final boolean warmedUp;
+    private final AtomicInteger seen = new AtomicInteger();
+    private final AtomicInteger recorded = new AtomicInteger();
+
+    public FirstRequestsFilter(MeterRegistry meterRegistry, WarmupProperties properties) {
+        this.limit = properties.getFirstRequests();
+        this.warmedUp = properties.isEnabled();
+        this.timer = Timer.builder("user.warmup.first.requests")
+                .tag("warmup", String.valueOf(warmedUp))
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (seen.get() >= limit || seen.incrementAndGet() > limit) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (recorded.incrementAndGet() == limit) {
+                report();
+            }
+        }
+    }
+
+    private void report() {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        StringBuilder percentiles = new StringBuilder();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            percentiles.append(String.format(" p%.0f=%.1fms", value.percentile() * 100,
+                    value.value(TimeUnit.MILLISECONDS)));
+        }
+        log.info("First {} requests (warm-up {}): mean={}ms{}", limit, warmedUp ? "on" : "off",
+                String.format("%.1f", snapshot.mean(TimeUnit.MILLISECONDS)), percentiles);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.user.warmup;
+
+import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.service.UserService;
+import com.ecommerce.user.util.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "user.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public WarmupRunner warmupRunner(UserService userService, UserRepository userRepository,
+            PasswordEncoder passwordEncoder, JwtService jwtService, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry, WarmupProperties properties) {
+        return new WarmupRunner(userService, userRepository, passwordEncoder, jwtService, objectMapper, meterRegistry,
+                properties);
+    }
+
+    // Registered either way, so deploys with warm-up turned off produce the baseline to compare against. Runs after
+    // the concurrency limiter, so requests it sheds are not counted among the first ones served.
+    @Bean
+    public FilterRegistrationBean<FirstRequestsFilter> firstRequestsFilter(MeterRegistry meterRegistry,
+            WarmupProperties properties) {
+        FilterRegistrationBean<FirstRequestsFilter> registration =
+                new FilterRegistrationBean<>(new FirstRequestsFilter(meterRegistry, properties));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
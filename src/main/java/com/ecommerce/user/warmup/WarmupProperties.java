@@ -0,0 +1,23 @@
+package com.ecommerce.user.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "user.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = true;
+    // Rounds of token signing and JSON serialization; enough for the JIT to compile them at its top tier
+    private int iterations = 10_000;
+    // Credential checks are dominated by BCrypt, whose inner loop is hot after a handful of calls
+    private int credentialIterations = 20;
+    // Lookups of an existing user go to the database, so fewer rounds than the in-memory paths
+    private int lookupIterations = 1000;
+    // Readiness is released after this long even if the rounds are not done
+    private Duration maxDuration = Duration.ofSeconds(60);
+    // Number of real /api/** requests timed after startup, to compare deploys with and without warm-up
+    private int firstRequests = 1000;
+}
@@ -0,0 +1,175 @@
+package com.ecommerce.user.warmup;
+
+import com.ecommerce.user.dto.ApiResponse;
+import com.ecommerce.user.dto.UserDetailResponse;
+import com.ecommerce.user.dto.UserLoginRequest;
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserRole;
+import com.ecommerce.user.exception.UserNotFoundException;
+import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.service.UserService;
+import com.ecommerce.user.util.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the hot request paths before the service takes traffic: credential checks (a lookup of a username that
+ * cannot exist, then BCrypt), lookups of an existing user by id and username with its addresses hydrated, JWT
+ * signing and verification, and Jackson round trips of the {@code User}, {@code ApiResponse} and login payloads.
+ * Only reads reach the database and nothing is sent to Kafka.
+ *
+ * <p>Spring Boot only reports readiness {@code ACCEPTING_TRAFFIC} once every {@link ApplicationRunner} has
+ * returned, so {@code /actuator/health/readiness} stays {@code OUT_OF_SERVICE} until this is done.
+ */
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    // Only ever looked up, so even if someone registers it nothing of theirs is touched
+    private static final String SYNTHETIC_USERNAME = "warm-up.synthetic";
+    private static final String SYNTHETIC_PASSWORD = "warm-up-password";
+
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final WarmupProperties properties;
+
+    public WarmupRunner(UserService userService, UserRepository userRepository, PasswordEncoder passwordEncoder,
+            JwtService jwtService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            WarmupProperties properties) {
+        this.userService = userService;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        long deadline = started + properties.getMaxDuration().toNanos();
+        try {
+            String hash = passwordEncoder.encode(SYNTHETIC_PASSWORD);
+            exercise("credentials", properties.getCredentialIterations(), deadline, () -> {
+                try {
+                    userService.getUserByUsername(SYNTHETIC_USERNAME);
+                } catch (UserNotFoundException expected) {
+                    // The lookup path is what is being warmed
+                }
+                passwordEncoder.matches(SYNTHETIC_PASSWORD, hash);
+            });
+            Optional<User> existing = userRepository.findPageAfter(0L, Limit.of(1)).stream().findFirst();
+            if (existing.isPresent()) {
+                Long id = existing.get().getId();
+                String username = existing.get().getUsername();
+                exercise("lookup", properties.getLookupIterations(), deadline, () -> {
+                    objectMapper.writeValueAsBytes(userService.getUserById(id));
+                    userService.getUserByUsername(username);
+                });
+            } else {
+                log.info("Warm-up lookup: no users yet, skipped");
+            }
+            exercise("jwt", properties.getIterations(), deadline,
+                    () -> jwtService.validateToken(jwtService.generateToken(SYNTHETIC_USERNAME, "CUSTOMER")));
+            User user = syntheticUser();
+            byte[] login = objectMapper.writeValueAsBytes(login());
+            exercise("json", properties.getIterations(), deadline, () -> {
+                objectMapper.writeValueAsBytes(user);
+                objectMapper.writeValueAsBytes(List.of(user));
+                objectMapper.writeValueAsBytes(new ApiResponse<>(true, 200, "ok", detail(user)));
+                objectMapper.readValue(login, UserLoginRequest.class);
+            });
+        } catch (Exception e) {
+            // A failed warm-up only costs latency; never keep the instance out of rotation for it
+            log.warn("Warm-up aborted", e);
+        }
+        long elapsed = System.nanoTime() - started;
+        meterRegistry.timer("user.warmup.duration").record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private void exercise(String path, int iterations, long deadline, Step step) throws Exception {
+        Timer timer = meterRegistry.timer("user.warmup.iteration", "path", path);
+        long first = 0;
+        long recent = 0;
+        int recentCount = 0;
+        int done = 0;
+        for (; done < iterations && System.nanoTime() < deadline; done++) {
+            long start = System.nanoTime();
+            step.run();
+            long took = System.nanoTime() - start;
+            timer.record(took, TimeUnit.NANOSECONDS);
+            if (done == 0) {
+                first = took;
+            } else if (done >= iterations - Math.max(1, iterations / 10)) {
+                recent += took;
+                recentCount++;
+            }
+        }
+        log.info("Warm-up {}: {} iterations, first took {} us, last {} averaged {} us", path, done, first / 1000,
+                recentCount, recentCount == 0 ? "-" : recent / recentCount / 1000);
+    }
+
+    private static User syntheticUser() {
+        User user = User.builder()
+                .id(0L)
+                .username(SYNTHETIC_USERNAME)
+                .email("warm-up@example.invalid")
+                .password("not-a-real-hash")
+                .firstName("Warm")
+                .lastName("Up")
+                .phoneNumber("0000000000")
+                .createdAt(0L)
+                .updatedAt(0L)
+                .role(UserRole.CUSTOMER)
+                .build();
+        user.getAddresses().add(Address.builder()
+                .id(0L)
+                .user(user)
+                .fullName("Warm Up")
+                .addressLine("1 Example Street")
+                .city("Pune")
+                .state("Maharashtra")
+                .zipCode("411001")
+                .phone("0000000000")
+                .isDefault(true)
+                .build());
+        return user;
+    }
+
+    private static UserLoginRequest login() {
+        UserLoginRequest request = new UserLoginRequest();
+        request.setUsername(SYNTHETIC_USERNAME);
+        request.setPassword(SYNTHETIC_PASSWORD);
+        return request;
+    }
+
+    private static UserDetailResponse detail(User user) {
+        return UserDetailResponse.builder()
+                .userId(user.getId())
+                .isVerified(true)
+                .userType(user.getRole().name())
+                .email(user.getEmail())
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+}
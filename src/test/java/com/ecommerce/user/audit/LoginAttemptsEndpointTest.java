@@ -0,0 +1,46 @@
+package com.ecommerce.user.audit;
+
+import com.ecommerce.user.service.UserEventPublisher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginAttemptsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserEventPublisher eventPublisher;
+
+    @Test
+    void needsAuthentication() throws Exception {
+        mockMvc.perform(get("/api/users/login-attempts").param("username", "alice"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void needsAdminRole() throws Exception {
+        mockMvc.perform(get("/api/users/login-attempts").param("username", "alice"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void adminsReadLoginHistory() throws Exception {
+        mockMvc.perform(get("/api/users/login-attempts").param("username", "alice"))
+                .andExpect(status().isOk());
+    }
+}
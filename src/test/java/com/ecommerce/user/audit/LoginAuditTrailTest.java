@@ -0,0 +1,204 @@
+package com.ecommerce.user.audit;
+
+import com.ecommerce.user.entity.LoginAttempt;
+import com.ecommerce.user.entity.LoginOutcome;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoginAuditTrailTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .generateUniqueName(true)
+            .setType(EmbeddedDatabaseType.H2)
+            .build();
+
+    @TempDir
+    private Path spillDir;
+
+    @AfterEach
+    void shutdown() {
+        database.shutdown();
+    }
+
+    @Test
+    void dropsAttemptsOnceTheBufferIsFull() {
+        LoginAuditTrail trail = trail(database(), 3, 500, Duration.ofSeconds(30));
+
+        for (int i = 0; i < 5; i++) {
+            trail.record("alice", 1L, LoginOutcome.SUCCESS);
+        }
+
+        assertEquals(3, meterRegistry.get("user.login.audit.buffered").gauge().value());
+        assertEquals(2, meterRegistry.counter("user.login.audit.dropped").count());
+        trail.flush();
+        assertEquals(0, meterRegistry.get("user.login.audit.buffered").gauge().value());
+        assertEquals(3, rows());
+    }
+
+    @Test
+    void flushesTheBufferInBatches() throws Exception {
+        DataSource dataSource = spy(database());
+        LoginAuditTrail trail = trail(dataSource, 100, 2, Duration.ofSeconds(30));
+        trail.record("alice", 1L, LoginOutcome.BAD_PASSWORD);
+        trail.record("alice", 1L, LoginOutcome.BAD_PASSWORD);
+        trail.record("mallory", null, LoginOutcome.USER_NOT_FOUND);
+        trail.record("alice", 1L, LoginOutcome.UNVERIFIED);
+        trail.record("alice", 1L, LoginOutcome.SUCCESS);
+
+        trail.flush();
+
+        assertEquals(5, rows());
+        assertEquals(5, written("db"));
+        verify(dataSource, times(3)).getConnection();
+        List<LoginAttempt> recent = trail.recentAttempts("alice", 2);
+        assertEquals(List.of(LoginOutcome.SUCCESS, LoginOutcome.UNVERIFIED),
+                recent.stream().map(LoginAttempt::getOutcome).toList());
+    }
+
+    @Test
+    void spillsToFileWhileThePoolHasWaiters() throws Exception {
+        HikariPoolMXBean mxBean = mock(HikariPoolMXBean.class);
+        when(mxBean.getThreadsAwaitingConnection()).thenReturn(4);
+        HikariDataSource pool = mock(HikariDataSource.class);
+        when(pool.getHikariPoolMXBean()).thenReturn(mxBean);
+        LoginAuditTrail trail = trail(pool, 100, 500, Duration.ofSeconds(30));
+        trail.record("alice", 1L, LoginOutcome.SUCCESS);
+        trail.record("bob", 2L, LoginOutcome.BAD_PASSWORD);
+
+        trail.flush();
+
+        verify(pool, never()).getConnection();
+        assertEquals(2, written("file"));
+        assertEquals(0, written("db"));
+        assertEquals(2, spilled().size());
+    }
+
+    @Test
+    void keepsSpillingForTheBackoffAfterAFailedBatch() throws Exception {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        LoginAuditTrail trail = trail(broken, 100, 500, Duration.ofMinutes(5));
+
+        trail.record("alice", 1L, LoginOutcome.SUCCESS);
+        trail.flush();
+        trail.record("bob", 2L, LoginOutcome.SUCCESS);
+        trail.flush();
+
+        // Only the first batch tried the database; the second went straight to file
+        verify(broken, times(1)).getConnection();
+        assertEquals(2, written("file"));
+        List<String> lines = spilled();
+        assertEquals(2, lines.size());
+        assertEquals("bob", new ObjectMapper().readValue(lines.get(1), LoginAttempt.class).getUsername());
+    }
+
+    @Test
+    void triesTheDatabaseAgainOnceTheBackoffHasPassed() throws Exception {
+        DataSource flaky = spy(database());
+        when(flaky.getConnection()).thenThrow(new SQLException("pool exhausted")).thenCallRealMethod();
+        LoginAuditTrail trail = trail(flaky, 100, 500, Duration.ZERO);
+
+        trail.record("alice", 1L, LoginOutcome.SUCCESS);
+        trail.flush();
+        trail.record("bob", 2L, LoginOutcome.SUCCESS);
+        trail.flush();
+
+        assertEquals(1, written("file"));
+        assertEquals(1, written("db"));
+        assertFalse(trail.recentAttempts("bob", 1).isEmpty());
+    }
+
+    @Test
+    void keepsFlushingWhileALongPurgeHoldsTheTaskScheduler() throws Exception {
+        // As configured with virtual threads, the shared scheduler runs fixed-delay tasks on a single thread
+        SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+        scheduler.setVirtualThreads(true);
+        CountDownLatch purgeRunning = new CountDownLatch(1);
+        CountDownLatch purgeDone = new CountDownLatch(1);
+        scheduler.scheduleWithFixedDelay(() -> {
+            purgeRunning.countDown();
+            try {
+                purgeDone.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, Duration.ofMillis(10));
+        LoginAuditTrail trail = new LoginAuditTrail(database(), new ObjectMapper(), meterRegistry, 100, 500,
+                Duration.ofMillis(20), Duration.ofSeconds(30), Duration.ofSeconds(2), spillDir, DataSize.ofMegabytes(1));
+        try {
+            assertTrue(purgeRunning.await(5, TimeUnit.SECONDS));
+            trail.start();
+            trail.record("alice", 1L, LoginOutcome.SUCCESS);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (rows() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(1, rows());
+            assertEquals(1, purgeDone.getCount());
+        } finally {
+            purgeDone.countDown();
+            scheduler.close();
+            trail.close();
+        }
+    }
+
+    private DataSource database() {
+        new JdbcTemplate(database).execute("CREATE TABLE login_attempts (id BIGINT AUTO_INCREMENT PRIMARY KEY,"
+                + " username VARCHAR(255), user_id BIGINT, outcome VARCHAR(32), attempted_at BIGINT)");
+        return database;
+    }
+
+    private LoginAuditTrail trail(DataSource dataSource, int bufferSize, int batchSize, Duration dbBackoff) {
+        return new LoginAuditTrail(dataSource, new ObjectMapper(), meterRegistry, bufferSize, batchSize,
+                Duration.ofSeconds(1), dbBackoff, Duration.ofSeconds(2), spillDir, DataSize.ofMegabytes(1));
+    }
+
+    private int rows() {
+        return new JdbcTemplate(database).queryForObject("SELECT COUNT(*) FROM login_attempts", Integer.class);
+    }
+
+    private double written(String sink) {
+        return meterRegistry.counter("user.login.audit.written", "sink", sink).count();
+    }
+
+    private List<String> spilled() throws IOException {
+        return Files.readAllLines(spillDir.resolve(
+                "login-attempts-" + LocalDate.now(ZoneOffset.UTC) + ".0.ndjson"));
+    }
+}
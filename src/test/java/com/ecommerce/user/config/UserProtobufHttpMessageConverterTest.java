@@ -0,0 +1,93 @@
+package com.ecommerce.user.config;
+
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserRole;
+import com.ecommerce.user.proto.AddressSummaryList;
+import com.ecommerce.user.proto.UserSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserProtobufHttpMessageConverterTest {
+
+    private static final Type ADDRESS_LIST = ResolvableType.forClassWithGenerics(List.class, Address.class).getType();
+
+    private final UserProtobufHttpMessageConverter converter = new UserProtobufHttpMessageConverter();
+
+    @Test
+    void writesUserAsUserSummary() throws Exception {
+        User user = User.builder().id(42L).username("alice").email("alice@example.com").firstName("Alice")
+                .lastName("Liddell").phoneNumber("555-0100").role(UserRole.MERCHANT).isVerified(true)
+                .createdAt(1_700_000_000_000L).password("secret-hash").build();
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(user, User.class, UserProtobufHttpMessageConverter.PROTOBUF, output);
+
+        assertEquals(UserProtobufHttpMessageConverter.PROTOBUF, output.getHeaders().getContentType());
+        assertEquals(output.getBodyAsBytes().length, output.getHeaders().getContentLength());
+        UserSummary summary = UserSummary.parseFrom(output.getBodyAsBytes());
+        assertEquals(42L, summary.getId());
+        assertEquals("alice", summary.getUsername());
+        assertEquals("alice@example.com", summary.getEmail());
+        assertEquals("Alice", summary.getFirstName());
+        assertEquals("Liddell", summary.getLastName());
+        assertEquals("555-0100", summary.getPhoneNumber());
+        assertEquals("MERCHANT", summary.getRole());
+        assertTrue(summary.getVerified());
+        assertEquals(1_700_000_000_000L, summary.getCreatedAt());
+    }
+
+    @Test
+    void writesAddressListAsAddressSummaryList() throws Exception {
+        User user = User.builder().id(7L).build();
+        List<Address> addresses = List.of(
+                Address.builder().id(1L).user(user).fullName("Home").addressLine("1 Main Street").city("Pune")
+                        .state("MH").zipCode("411001").phone("555-0101").isDefault(true).build(),
+                Address.builder().id(2L).user(user).city("Mumbai").build());
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(addresses, ADDRESS_LIST, UserProtobufHttpMessageConverter.PROTOBUF, output);
+
+        AddressSummaryList list = AddressSummaryList.parseFrom(output.getBodyAsBytes());
+        assertEquals(2, list.getAddressesCount());
+        assertEquals(1L, list.getAddresses(0).getId());
+        assertEquals(7L, list.getAddresses(0).getUserId());
+        assertEquals("Home", list.getAddresses(0).getFullName());
+        assertEquals("1 Main Street", list.getAddresses(0).getAddressLine());
+        assertEquals("MH", list.getAddresses(0).getState());
+        assertEquals("411001", list.getAddresses(0).getZipCode());
+        assertEquals("555-0101", list.getAddresses(0).getPhone());
+        assertTrue(list.getAddresses(0).getIsDefault());
+        assertEquals("Mumbai", list.getAddresses(1).getCity());
+        assertEquals("", list.getAddresses(1).getFullName());
+        assertFalse(list.getAddresses(1).getIsDefault());
+    }
+
+    @Test
+    void onlyWritesUsersAndAddressListsAsProtobuf() {
+        MediaType protobuf = UserProtobufHttpMessageConverter.PROTOBUF;
+        assertTrue(converter.canWrite(User.class, User.class, protobuf));
+        assertTrue(converter.canWrite(ADDRESS_LIST, List.class, protobuf));
+        assertFalse(converter.canWrite(User.class, User.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(ResolvableType.forClassWithGenerics(List.class, User.class).getType(),
+                List.class, protobuf));
+        assertFalse(converter.canWrite(String.class, String.class, protobuf));
+        assertFalse(converter.canRead(User.class, null, protobuf));
+        assertEquals(List.of(protobuf), converter.getSupportedMediaTypes(User.class));
+        assertTrue(converter.getSupportedMediaTypes(List.class).isEmpty());
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> converter.read(User.class, null, new MockHttpInputMessage(new byte[0])));
+    }
+}
@@ -1,26 +1,42 @@
-/*
 package com.ecommerce.user.controller;
 
+import com.ecommerce.user.audit.LoginAuditTrail;
+import com.ecommerce.user.config.UserProtobufHttpMessageConverter;
 import com.ecommerce.user.dto.UserDetailResponse;
 import com.ecommerce.user.dto.UserLoginRequest;
 import com.ecommerce.user.dto.UserRegistrationRequest;
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.proto.AddressSummaryList;
+import com.ecommerce.user.service.IdempotencyStore;
+import com.ecommerce.user.service.UserChangeFeedService;
+import com.ecommerce.user.service.UserProfileService;
 import com.ecommerce.user.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
 @org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc(addFilters = false)
+@Import(IdempotencyStore.class)
 public class UserControllerTest {
 
     @Autowired
@@ -29,6 +45,15 @@ public class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserChangeFeedService changeFeedService;
+
+    @MockBean
+    private LoginAuditTrail loginAuditTrail;
+
+    @MockBean
+    private UserProfileService profileService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -51,7 +76,7 @@ public class UserControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data")
+                .andExpect(jsonPath("$.message")
                         .value("Registration successful! Please check your email to verify your account."));
     }
 
@@ -90,7 +115,61 @@ public class UserControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.success").value(false))
-                .andExpect(jsonPath("$.errorCode").value("VAL_400"));
+                .andExpect(jsonPath("$.httpCode").value(400))
+                .andExpect(jsonPath("$.message").value("Validation Failed"));
+    }
+
+    @Test
+    public void testRegisterUser_IdempotencyKeyReusedWithDifferentBody() throws Exception {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setUsername("keyuser");
+        request.setEmail("key@example.com");
+        request.setPassword("password123");
+        request.setConfirmPassword("password123");
+        request.setFullName("Key User");
+        request.setPhoneNumber("1234567890");
+        request.setRole("CUSTOMER");
+
+        when(userService.registerUser(any(UserRegistrationRequest.class))).thenReturn("Registration successful!");
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/users/register")
+                    .header(IdempotencyStore.HEADER, "register-key-1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk());
+        }
+
+        request.setEmail("other@example.com");
+        mockMvc.perform(post("/api/users/register")
+                .header(IdempotencyStore.HEADER, "register-key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.httpCode").value(422));
+
+        verify(userService, times(1)).registerUser(any(UserRegistrationRequest.class));
+    }
+
+    @Test
+    public void testGetAllUsers_ProtobufNotAcceptable() throws Exception {
+        when(userService.getAllUsers()).thenReturn(List.of(User.builder().id(1L).username("alice").build()));
+
+        mockMvc.perform(get("/api/users").accept(UserProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    public void testGetUserAddresses_Protobuf() throws Exception {
+        User user = User.builder().id(7L).build();
+        when(userService.getUserAddresses(7L))
+                .thenReturn(List.of(Address.builder().id(1L).user(user).city("Pune").build()));
+
+        byte[] body = mockMvc.perform(get("/api/users/7/addresses").accept(UserProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserProtobufHttpMessageConverter.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals("Pune", AddressSummaryList.parseFrom(body).getAddresses(0).getCity());
     }
 }
-*/
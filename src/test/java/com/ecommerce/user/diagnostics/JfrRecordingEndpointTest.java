@@ -0,0 +1,46 @@
+package com.ecommerce.user.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JfrRecordingEndpointTest {
+
+    private final JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint("default", Duration.ofMinutes(10));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void summarizesRecordedEventsAndLeavesNoDumpBehind() throws IOException {
+        List<Path> before = dumps();
+        endpoint.start();
+        assertEquals("RUNNING", endpoint.status().get("state"));
+        new LoginValidationEvent().record("alice", () -> "ok");
+
+        Map<String, Object> summary = endpoint.stop();
+
+        Map<String, Map<String, Object>> events = (Map<String, Map<String, Object>>) summary.get("events");
+        assertEquals(1L, events.get("com.ecommerce.user.LoginValidation").get("count"));
+        assertEquals(before, dumps());
+        assertEquals("NOT_STARTED", endpoint.status().get("state"));
+    }
+
+    @Test
+    void stopWithoutRecordingIsHarmless() {
+        assertTrue(endpoint.stop().containsValue("NOT_STARTED"));
+    }
+
+    private static List<Path> dumps() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(f -> f.getFileName().toString().matches("user-service-.*\\.jfr")).sorted().toList();
+        }
+    }
+}
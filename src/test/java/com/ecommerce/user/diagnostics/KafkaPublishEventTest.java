@@ -0,0 +1,90 @@
+package com.ecommerce.user.diagnostics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KafkaPublishEventTest {
+
+    private static final String EVENT = "com.ecommerce.user.KafkaPublish";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void eventIsCommittedWhenTheSendIsAcknowledged() throws IOException {
+        CompletableFuture<String> ack = new CompletableFuture<>();
+        List<RecordedEvent> events = record(() -> {
+            new KafkaPublishEvent("user-events", "alice").recordUntilAcknowledged("alice", () -> ack);
+            assertTrue(committed().isEmpty());
+            sleep(50);
+            ack.complete("acked");
+        });
+
+        assertEquals(1, events.size());
+        assertEquals(UserServiceEvent.SUCCESS, events.get(0).getString("outcome"));
+        assertEquals(UserServiceEvent.hash("alice"), events.get(0).getString("userHash"));
+        assertFalse(events.get(0).getDuration().compareTo(Duration.ofMillis(50)) < 0);
+    }
+
+    @Test
+    void failedAcknowledgementIsRecordedAsTheOutcome() throws IOException {
+        CompletableFuture<String> ack = new CompletableFuture<>();
+        List<RecordedEvent> events = record(() -> {
+            new KafkaPublishEvent("user-events", "alice").recordUntilAcknowledged("alice", () -> ack);
+            ack.completeExceptionally(new IllegalStateException("broker down"));
+        });
+
+        assertEquals(1, events.size());
+        assertEquals("IllegalStateException", events.get(0).getString("outcome"));
+    }
+
+    private Recording recording;
+
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        try (Recording r = new Recording()) {
+            recording = r;
+            r.enable(EVENT).withThreshold(Duration.ZERO);
+            r.start();
+            action.run();
+            r.stop();
+            Path file = dir.resolve("publish.jfr");
+            r.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(EVENT))
+                    .toList();
+        }
+    }
+
+    private List<RecordedEvent> committed() {
+        try {
+            Path file = dir.resolve("snapshot.jfr");
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(EVENT))
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.user.dto;
+
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.proto.AddressSummary;
+import com.ecommerce.user.proto.UserSummary;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class UserProtoMapperTest {
+
+    @Test
+    void unsetUserFieldsStayAtWireDefaults() throws Exception {
+        UserSummary summary = UserSummary.parseFrom(
+                UserProtoMapper.toUserSummary(User.builder().username("bob").build()).toByteArray());
+
+        assertEquals("bob", summary.getUsername());
+        assertEquals(0L, summary.getId());
+        assertEquals("", summary.getEmail());
+        assertEquals("", summary.getRole());
+        assertEquals(0L, summary.getCreatedAt());
+        assertFalse(summary.getVerified());
+    }
+
+    @Test
+    void addressWithoutUserHasNoUserId() throws Exception {
+        AddressSummary summary = AddressSummary.parseFrom(
+                UserProtoMapper.toAddressSummary(Address.builder().id(3L).city("Pune").build()).toByteArray());
+
+        assertEquals(3L, summary.getId());
+        assertEquals(0L, summary.getUserId());
+        assertEquals("Pune", summary.getCity());
+        assertEquals("", summary.getZipCode());
+    }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce.user.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = filter(10);
+    private final List<AsyncContext> held = new ArrayList<>();
+
+    @Test
+    void shedsLowPriorityFirstAsTheLimitFills() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, hold("GET", "/api/users").getStatus());
+        }
+        MockHttpServletResponse low = hold("GET", "/api/users");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, hold("PUT", "/api/users/1").getStatus());
+        }
+        MockHttpServletResponse normal = hold("PUT", "/api/users/1");
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, hold("GET", "/api/users/1").getStatus());
+        }
+        MockHttpServletResponse critical = hold("GET", "/api/users/1");
+
+        assertEquals(503, low.getStatus());
+        assertEquals(503, normal.getStatus());
+        assertEquals(503, critical.getStatus());
+        assertEquals(10, held.size());
+        assertEquals(10, inFlight());
+        assertEquals(5, count("user.concurrency.admitted", "low"));
+        assertEquals(3, count("user.concurrency.admitted", "normal"));
+        assertEquals(2, count("user.concurrency.admitted", "critical"));
+        assertEquals(1, count("user.concurrency.rejected", "low"));
+        assertEquals(1, count("user.concurrency.rejected", "normal"));
+        assertEquals(1, count("user.concurrency.rejected", "critical"));
+    }
+
+    @Test
+    void rejectsWithRetryAfterWithoutCallingTheChain() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            hold("GET", "/api/users/1");
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users/validate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<Object> calls = new ArrayList<>();
+
+        filter.doFilter(request, response, (req, res) -> calls.add(req));
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertThat(response.getContentAsString(), containsString("at capacity"));
+        assertEquals(List.of(), calls);
+    }
+
+    @Test
+    void releasesTheSlotWhenTheAsyncRequestCompletes() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            hold("GET", "/api/users/1");
+        }
+        assertEquals(503, hold("GET", "/api/users/1").getStatus());
+
+        held.remove(0).complete();
+
+        assertEquals(9, inFlight());
+        assertEquals(200, hold("GET", "/api/users/1").getStatus());
+        held.forEach(AsyncContext::complete);
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void releasesTheSlotWhenASynchronousRequestReturns() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users/1"), response, (req, res) -> { });
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void leavesNonApiRequestsAlone() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            hold("GET", "/api/users/1");
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, (req, res) -> { });
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    // Starts a streamed request that keeps its slot until the returned context is completed
+    private MockHttpServletResponse hold(String method, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> held.add(req.startAsync());
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("user.concurrency.inflight").gauge().value();
+    }
+
+    private double count(String name, String priority) {
+        return meterRegistry.get(name).tag("priority", priority).counter().count();
+    }
+
+    private ConcurrencyLimitFilter filter(int fixedLimit) {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(fixedLimit);
+        properties.setMinLimit(fixedLimit);
+        properties.setMaxLimit(fixedLimit);
+        return new ConcurrencyLimitFilter(new GradientLimit(properties), properties,
+                Jackson2ObjectMapperBuilder.json().build(), meterRegistry);
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.user.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimitTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(100).toNanos();
+
+    @Test
+    void growsWhileLatencyHoldsSteady() {
+        GradientLimit limit = limit(20, 10, 1000);
+
+        sample(limit, FAST, 50);
+
+        assertTrue(limit.getLimit() > 20, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void neverGrowsPastTheMaximum() {
+        GradientLimit limit = limit(20, 10, 30);
+
+        sample(limit, FAST, 500);
+
+        assertEquals(30, limit.getLimit());
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAboveTheBaseline() {
+        GradientLimit limit = limit(100, 10, 1000);
+        sample(limit, FAST, 100);
+        int steady = limit.getLimit();
+
+        sample(limit, SLOW, 20);
+
+        assertTrue(limit.getLimit() < steady, steady + " -> " + limit.getLimit());
+    }
+
+    @Test
+    void neverShrinksBelowTheMinimum() {
+        GradientLimit limit = limit(100, 10, 1000);
+        sample(limit, FAST, 100);
+
+        sample(limit, SLOW * 50, 60);
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void staysPutWhileMostlyIdle() {
+        GradientLimit limit = limit(100, 10, 1000);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(FAST, 1);
+        }
+
+        assertEquals(100, limit.getLimit());
+    }
+
+    private static void sample(GradientLimit limit, long rttNanos, int samples) {
+        for (int i = 0; i < samples; i++) {
+            limit.onSample(rttNanos, limit.getLimit());
+        }
+    }
+
+    private static GradientLimit limit(int initial, int min, int max) {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(initial);
+        properties.setMinLimit(min);
+        properties.setMaxLimit(max);
+        return new GradientLimit(properties);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.user.limit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestPriorityTest {
+
+    @Test
+    void classifiesCriticalPaths() {
+        assertEquals(RequestPriority.CRITICAL, of("POST", "/api/users/validate"));
+        assertEquals(RequestPriority.CRITICAL, of("GET", "/api/users/42"));
+    }
+
+    @Test
+    void classifiesBulkReadsAsLow() {
+        assertEquals(RequestPriority.LOW, of("GET", "/api/users"));
+        assertEquals(RequestPriority.LOW, of("GET", "/api/users/snapshot"));
+        assertEquals(RequestPriority.LOW, of("GET", "/api/users/changes"));
+    }
+
+    @Test
+    void classifiesEverythingElseAsNormal() {
+        assertEquals(RequestPriority.NORMAL, of("PUT", "/api/users/42"));
+        assertEquals(RequestPriority.NORMAL, of("DELETE", "/api/users/42"));
+        assertEquals(RequestPriority.NORMAL, of("GET", "/api/users/42/addresses"));
+        assertEquals(RequestPriority.NORMAL, of("GET", "/api/users/validate"));
+        assertEquals(RequestPriority.NORMAL, of("POST", "/api/users/register"));
+    }
+
+    @Test
+    void allowanceIsTheShareOfTheLimitButNeverZero() {
+        assertEquals(100, RequestPriority.CRITICAL.allowance(100));
+        assertEquals(80, RequestPriority.NORMAL.allowance(100));
+        assertEquals(50, RequestPriority.LOW.allowance(100));
+        assertEquals(1, RequestPriority.LOW.allowance(1));
+    }
+
+    private static RequestPriority of(String method, String path) {
+        return RequestPriority.of(new MockHttpServletRequest(method, path));
+    }
+}
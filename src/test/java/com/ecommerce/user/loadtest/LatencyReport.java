@@ -0,0 +1,133 @@
+package com.ecommerce.user.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-endpoint latency histograms and error counts for one load test phase, with
+ * helpers to persist the results as a baseline and compare a later run against it.
+ */
+class LatencyReport {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private long startNanos;
+    private Long endNanos;
+
+    LatencyReport() {
+        this(System::nanoTime);
+    }
+
+    LatencyReport(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    void start() {
+        startNanos = clock.getAsLong();
+    }
+
+    void stop() {
+        endNanos = clock.getAsLong();
+    }
+
+    void record(String endpoint, long nanos, boolean success) {
+        histograms.computeIfAbsent(endpoint, k -> new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3))
+                .recordValue(Math.min(nanos, MAX_TRACKABLE_NANOS));
+        if (!success) {
+            errors.computeIfAbsent(endpoint, k -> new LongAdder()).increment();
+        }
+    }
+
+    double throughput(String endpoint) {
+        Histogram histogram = histograms.get(endpoint);
+        return histogram == null ? 0 : histogram.getTotalCount() / elapsedSeconds();
+    }
+
+    double percentileMillis(String endpoint, double percentile) {
+        Histogram histogram = histograms.get(endpoint);
+        return histogram == null ? 0 : histogram.getValueAtPercentile(percentile) / 1_000_000.0;
+    }
+
+    long errorCount(String endpoint) {
+        LongAdder adder = errors.get(endpoint);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-16s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        long total = 0;
+        for (String endpoint : new TreeMap<>(histograms).keySet()) {
+            Histogram h = histograms.get(endpoint);
+            total += h.getTotalCount();
+            out.append(String.format("%-16s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint, h.getTotalCount(), errorCount(endpoint), throughput(endpoint),
+                    percentileMillis(endpoint, 50), percentileMillis(endpoint, 90),
+                    percentileMillis(endpoint, 99), percentileMillis(endpoint, 99.9),
+                    h.getMaxValue() / 1_000_000.0));
+        }
+        out.append(String.format("%-16s %9d %7s %10.1f over %.1fs%n", "total", total, "", total / elapsedSeconds(),
+                elapsedSeconds()));
+        return out.toString();
+    }
+
+    void writeBaseline(Path path) throws IOException {
+        Properties baseline = new Properties();
+        for (String endpoint : histograms.keySet()) {
+            baseline.setProperty(endpoint + ".throughput", String.format("%.1f", throughput(endpoint)));
+            baseline.setProperty(endpoint + ".p99Ms", String.format("%.2f", percentileMillis(endpoint, 99)));
+        }
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            baseline.store(writer, "user-service load test baseline");
+        }
+    }
+
+    /**
+     * Returns one message per endpoint whose throughput dropped, or whose p99 grew, by more
+     * than the given fraction relative to the baseline.
+     */
+    List<String> regressionsAgainst(Path path, double tolerance) throws IOException {
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            baseline.load(reader);
+        }
+        List<String> regressions = new ArrayList<>();
+        for (String endpoint : histograms.keySet()) {
+            String throughput = baseline.getProperty(endpoint + ".throughput");
+            if (throughput != null && throughput(endpoint) < Double.parseDouble(throughput) * (1 - tolerance)) {
+                regressions.add(String.format("%s throughput %.1f req/s < baseline %s", endpoint,
+                        throughput(endpoint), throughput));
+            }
+            String p99 = baseline.getProperty(endpoint + ".p99Ms");
+            if (p99 != null && percentileMillis(endpoint, 99) > Double.parseDouble(p99) * (1 + tolerance)) {
+                regressions.add(String.format("%s p99 %.2f ms > baseline %s ms", endpoint,
+                        percentileMillis(endpoint, 99), p99));
+            }
+        }
+        return regressions;
+    }
+
+    private double elapsedSeconds() {
+        long end = endNanos != null ? endNanos : clock.getAsLong();
+        return Math.max(end - startNanos, 1) / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.user.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyReportTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsPercentilesAndErrorsPerEndpoint() {
+        LatencyReport report = new LatencyReport();
+        report.start();
+        for (int i = 1; i <= 100; i++) {
+            report.record("getUser", TimeUnit.MILLISECONDS.toNanos(i), i != 100);
+        }
+        report.stop();
+
+        assertEquals(50, report.percentileMillis("getUser", 50), 0.1);
+        assertEquals(99, report.percentileMillis("getUser", 99), 0.1);
+        assertEquals(1, report.errorCount("getUser"));
+        assertEquals(0, report.errorCount("validate"));
+        assertTrue(report.format().contains("getUser"));
+    }
+
+    @Test
+    void flagsEndpointsThatRegressedBeyondTolerance() throws Exception {
+        Path baseline = dir.resolve("baseline.properties");
+        LatencyReport before = run(10, 10);
+        before.writeBaseline(baseline);
+
+        assertEquals(List.of(), run(10, 10).regressionsAgainst(baseline, 0.2));
+        assertEquals(List.of(), run(11, 9).regressionsAgainst(baseline, 0.2));
+
+        List<String> slower = run(20, 10).regressionsAgainst(baseline, 0.2);
+        assertEquals(1, slower.size());
+        assertTrue(slower.get(0).startsWith("validate p99"));
+
+        List<String> fewer = run(10, 7).regressionsAgainst(baseline, 0.2);
+        assertEquals(1, fewer.size());
+        assertTrue(fewer.get(0).startsWith("validate throughput"));
+    }
+
+    private static LatencyReport run(long millis, int requests) {
+        // Every run spans exactly one second, so throughput is the request count
+        AtomicLong now = new AtomicLong(1_000);
+        LatencyReport report = new LatencyReport(now::get);
+        report.start();
+        for (int i = 0; i < requests; i++) {
+            report.record("validate", TimeUnit.MILLISECONDS.toNanos(millis), true);
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        report.stop();
+        assertEquals(requests, report.throughput("validate"), 1e-9);
+        return report;
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.user.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the human-readable result of a load test or benchmark to {@code target/loadtest/<name>.txt} and logs
+ * where it went, so results are kept with the build output instead of scrolling past in the console.
+ */
+@Slf4j
+final class LoadTestReports {
+
+    private LoadTestReports() {
+    }
+
+    static Path write(String name, String report) throws IOException {
+        Path file = Files.createDirectories(Path.of("target", "loadtest")).resolve(name + ".txt");
+        Files.writeString(file, report);
+        log.info("{} report written to {}", name, file.toAbsolutePath());
+        return file;
+    }
+}
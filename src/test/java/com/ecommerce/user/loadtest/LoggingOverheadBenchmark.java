@@ -0,0 +1,182 @@
+package com.ecommerce.user.loadtest;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserRole;
+import com.ecommerce.user.logging.MaskingJsonLayout;
+import com.ecommerce.user.logging.SamplingTurboFilter;
+import com.ecommerce.user.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures what a request thread pays per {@code UserService}-style INFO line with the old synchronous
+ * console logging versus the async appender, with and without sampling, and checks that the configured
+ * logging stays within {@code loadtest.logging.budget} (default 5%) of the median latency of a real
+ * {@code PUT /api/users/{id}}. Run with {@code mvn -Ploadtest test}.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EmbeddedKafka(partitions = 1, topics = { "user-events", "emailVerificationTopic" })
+@ActiveProfiles("loadtest")
+class LoggingOverheadBenchmark {
+
+    private static final int THREADS = Integer.getInteger("loadtest.concurrency", 64);
+    private static final int CALLS_PER_THREAD = 2_000;
+    private static final double BUDGET = Double.parseDouble(System.getProperty("loadtest.logging.budget", "0.05"));
+    private static final int ROUNDS = 10;
+    private static final int REQUESTS_PER_ROUND = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void requestLoggingStaysWithinBudget() throws Exception {
+        User user = userRepository.save(User.builder()
+                .username("logging-benchmark")
+                .email("logging-benchmark@loadtest.example.com")
+                .password("not-a-real-hash")
+                .role(UserRole.CUSTOMER)
+                .createdAt(System.currentTimeMillis())
+                .build());
+        HttpRequest update = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/" + user.getId()))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"firstName\":\"Logging\",\"lastName\":\"Benchmark\"}"))
+                .build();
+        Logger serviceLogger = ((LoggerContext) LoggerFactory.getILoggerFactory())
+                .getLogger("com.ecommerce.user.service.UserService");
+        Level configured = serviceLogger.getLevel();
+
+        // Interleave the modes so drift in JIT, GC and the connection pool hits both equally
+        long[] silent = new long[ROUNDS * REQUESTS_PER_ROUND];
+        long[] logged = new long[ROUNDS * REQUESTS_PER_ROUND];
+        send(update, new long[REQUESTS_PER_ROUND], 0);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                serviceLogger.setLevel(Level.WARN);
+                send(update, silent, round * REQUESTS_PER_ROUND);
+                serviceLogger.setLevel(configured);
+                send(update, logged, round * REQUESTS_PER_ROUND);
+            }
+        } finally {
+            serviceLogger.setLevel(configured);
+        }
+
+        double silentMedian = median(silent);
+        double overhead = (median(logged) - silentMedian) / silentMedian;
+        LoadTestReports.write("logging-overhead-update", String.format(
+                "PUT /api/users/{id} median: silent=%.3fms, logged=%.3fms, overhead=%.1f%% (budget %.1f%%)%n",
+                silentMedian / 1e6, median(logged) / 1e6, overhead * 100, BUDGET * 100));
+        assertTrue(overhead <= BUDGET, "request logging overhead " + overhead + " exceeds budget " + BUDGET);
+    }
+
+    @Test
+    void requestPathLoggingOverhead() throws Exception {
+        Path target = Files.createDirectories(Path.of("target", "logging-benchmark"));
+        LoadTestReports.write("logging-overhead-call", String.format(
+                "logging overhead per INFO call: threads=%d, calls=%d%n%s%s%s", THREADS, THREADS * CALLS_PER_THREAD,
+                measure("sync", target, false, 1).format(),
+                measure("async", target, true, 1).format(),
+                measure("async+sampled", target, true, 10).format()));
+    }
+
+    private void send(HttpRequest request, long[] latencies, int offset) throws Exception {
+        for (int i = 0; i < REQUESTS_PER_ROUND; i++) {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            latencies[offset + i] = System.nanoTime() - start;
+            assertEquals(200, response.statusCode());
+        }
+    }
+
+    private static double median(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private LatencyReport measure(String name, Path target, boolean async, int sampleRate) throws Exception {
+        LoggerContext context = new LoggerContext();
+        SamplingTurboFilter sampling = new SamplingTurboFilter();
+        sampling.setLoggers("com.ecommerce.user.service");
+        sampling.setRate(sampleRate);
+        sampling.start();
+        context.addTurboFilter(sampling);
+
+        MaskingJsonLayout layout = new MaskingJsonLayout();
+        layout.setContext(context);
+        layout.start();
+        LayoutWrappingEncoder<ILoggingEvent> encoder = new LayoutWrappingEncoder<>();
+        encoder.setContext(context);
+        encoder.setLayout(layout);
+        encoder.start();
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(target.resolve(name + ".log").toString());
+        file.setAppend(false);
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(file);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        Logger logger = context.getLogger("com.ecommerce.user.service.UserService");
+        logger.addAppender(appender);
+
+        LatencyReport report = new LatencyReport();
+        report.start();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                executor.submit(() -> {
+                    for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                        long start = System.nanoTime();
+                        logger.info("Validating credentials for user: {}", "user-" + thread + "-" + i);
+                        report.record(name, System.nanoTime() - start, true);
+                    }
+                });
+            }
+        }
+        report.stop();
+        context.stop();
+        return report;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.user.loadtest;
+
+import com.ecommerce.user.dto.UserProtoMapper;
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserRole;
+import com.ecommerce.user.proto.AddressSummaryList;
+import com.ecommerce.user.proto.UserSummary;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Compares payload size and per-call encode/decode cost of the JSON bodies served by {@code GET /api/users/{id}}
+ * and {@code GET /api/users/{userId}/addresses} with their {@code application/x-protobuf} equivalents.
+ * Run with {@code mvn -Ploadtest test}.
+ */
+@Tag("loadtest")
+class PayloadEncodingBenchmark {
+
+    private static final int ADDRESSES = Integer.getInteger("loadtest.encoding.addresses", 5);
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void jsonVersusProtobuf() throws Exception {
+        User user = sampleUser();
+        List<Address> addresses = user.getAddresses();
+        byte[] userJson = objectMapper.writeValueAsBytes(user);
+        byte[] userProto = UserProtoMapper.toUserSummary(user).toByteArray();
+        byte[] addressesJson = objectMapper.writeValueAsBytes(addresses);
+        byte[] addressesProto = UserProtoMapper.toAddressSummaryList(addresses).toByteArray();
+
+        StringBuilder table = new StringBuilder(String.format("%-22s %8s %12s %12s%n",
+                "payload", "bytes", "encode ns", "decode ns"));
+        row(table, "user/json", userJson.length,
+                () -> objectMapper.writeValueAsBytes(user),
+                () -> objectMapper.readValue(userJson, User.class));
+        row(table, "user/protobuf", userProto.length,
+                () -> UserProtoMapper.toUserSummary(user).toByteArray(),
+                () -> UserSummary.parseFrom(userProto));
+        row(table, "addresses/json", addressesJson.length,
+                () -> objectMapper.writeValueAsBytes(addresses),
+                () -> objectMapper.readValue(addressesJson, new TypeReference<List<Address>>() { }));
+        row(table, "addresses/protobuf", addressesProto.length,
+                () -> UserProtoMapper.toAddressSummaryList(addresses).toByteArray(),
+                () -> AddressSummaryList.parseFrom(addressesProto));
+        LoadTestReports.write("payload-encoding",
+                String.format("payload encoding: addresses/user=%d%n%s", ADDRESSES, table));
+    }
+
+    private static void row(StringBuilder table, String name, int bytes, Callable<?> encode, Callable<?> decode)
+            throws Exception {
+        table.append(String.format("%-22s %8d %12.0f %12.0f%n", name, bytes, nanosPerCall(encode),
+                nanosPerCall(decode)));
+    }
+
+    private static double nanosPerCall(Callable<?> call) throws Exception {
+        Object sink = null;
+        for (int i = 0; i < WARMUP; i++) {
+            sink = call.call();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = call.call();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == null) {
+            throw new IllegalStateException();
+        }
+        return (double) elapsed / ITERATIONS;
+    }
+
+    private static User sampleUser() {
+        User user = User.builder()
+                .id(48213L)
+                .username("priya.sharma")
+                .email("priya.sharma@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3ZK8Qh9m6r1u7c2bY2b9x1e")
+                .firstName("Priya")
+                .lastName("Sharma")
+                .phoneNumber("+91 98765 43210")
+                .isVerified(true)
+                .createdAt(1_760_000_000_000L)
+                .role(UserRole.CUSTOMER)
+                .build();
+        List<Address> addresses = new ArrayList<>(ADDRESSES);
+        for (int i = 0; i < ADDRESSES; i++) {
+            addresses.add(Address.builder()
+                    .id(1000L + i)
+                    .user(user)
+                    .fullName("Priya Sharma")
+                    .addressLine((12 + i) + ", MG Road, Koregaon Park")
+                    .city("Pune")
+                    .state("Maharashtra")
+                    .zipCode("411001")
+                    .phone("+91 98765 43210")
+                    .isDefault(i == 0)
+                    .build());
+        }
+        user.setAddresses(addresses);
+        return user;
+    }
+}
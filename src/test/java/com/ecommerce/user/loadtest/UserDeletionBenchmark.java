@@ -0,0 +1,106 @@
+package com.ecommerce.user.loadtest;
+
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserRole;
+import com.ecommerce.user.repository.AddressRepository;
+import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.service.UserPurgeJob;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares deleting users with large address books through the old cascading {@code deleteById} against
+ * the tombstone-and-purge path: request latency of {@code DELETE /api/users/{id}} and purge throughput.
+ * Sized with {@code loadtest.deletion.users} and {@code loadtest.deletion.addresses}.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "user.deletion.purge-interval=PT1H", "user.deletion.tombstone-retention=PT0S" })
+@EmbeddedKafka(partitions = 1, topics = { "user-events", "emailVerificationTopic" })
+@ActiveProfiles("loadtest")
+class UserDeletionBenchmark {
+
+    private static final int USERS = Integer.getInteger("loadtest.deletion.users", 20);
+    private static final int ADDRESSES = Integer.getInteger("loadtest.deletion.addresses", 1000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private UserPurgeJob purgeJob;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void deleteUsersWithLargeAddressBooks() throws Exception {
+        LatencyReport report = new LatencyReport();
+        report.start();
+
+        for (long id : seed("cascade")) {
+            long start = System.nanoTime();
+            userRepository.deleteById(id);
+            report.record("cascadeDelete", System.nanoTime() - start, true);
+        }
+
+        for (long id : seed("tombstone")) {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/api/users/" + id)).DELETE().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            report.record("tombstoneDelete", System.nanoTime() - start, response.statusCode() == 200);
+        }
+
+        long start = System.nanoTime();
+        purgeJob.purgeDeletedUsers();
+        long purgeNanos = System.nanoTime() - start;
+        report.stop();
+
+        assertEquals(0, addressRepository.count());
+        LoadTestReports.write("user-deletion", String.format(
+                "user deletion: users=%d, addresses/user=%d%n%spurge: %.1f users/s, %.0f addresses/s%n",
+                USERS, ADDRESSES, report.format(), USERS / (purgeNanos / 1e9),
+                (double) USERS * ADDRESSES / (purgeNanos / 1e9)));
+    }
+
+    private List<Long> seed(String prefix) {
+        List<Long> ids = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            User user = userRepository.save(User.builder()
+                    .username(prefix + "-" + u)
+                    .email(prefix + "-" + u + "@loadtest.example.com")
+                    .password("not-a-real-hash")
+                    .role(UserRole.CUSTOMER)
+                    .createdAt(System.currentTimeMillis())
+                    .build());
+            List<Address> addresses = new ArrayList<>(ADDRESSES);
+            for (int a = 0; a < ADDRESSES; a++) {
+                addresses.add(Address.builder().user(user).fullName("Load Test").addressLine(a + " Main Street")
+                        .city("Pune").zipCode("411001").build());
+            }
+            addressRepository.saveAll(addresses);
+            ids.add(user.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,233 @@
+package com.ecommerce.user.loadtest;
+
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a realistic mix of {@code /api/users} traffic against the application booted on H2 and an
+ * embedded Kafka broker, and reports per-endpoint throughput and latency percentiles.
+ *
+ * <p>Run with {@code mvn -Ploadtest test}. Tuning is done with system properties:
+ * {@code loadtest.concurrency}, {@code loadtest.warmupSeconds}, {@code loadtest.durationSeconds},
+ * {@code loadtest.users} and {@code loadtest.seed}. Passing {@code loadtest.writeBaseline=<file>} stores the
+ * results, and {@code loadtest.baseline=<file>} fails the run if any endpoint regresses by more than
+ * {@code loadtest.tolerance} (default 0.2).
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EmbeddedKafka(partitions = 1, topics = { "user-events", "emailVerificationTopic" })
+@ActiveProfiles("loadtest")
+class UserLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 64);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmupSeconds", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.durationSeconds", 30);
+    private static final int USERS = Integer.getInteger("loadtest.users", 50);
+    private static final long SEED = Long.getLong("loadtest.seed", 42L);
+    private static final String PASSWORD = "load-test-password";
+    private static final int MAX_ADDRESSES_PER_USER = 20;
+
+    /** Operation mix, weights sum to 100. */
+    private enum Operation {
+        VALIDATE(30), GET_USER(25), LIST_ADDRESSES(12), UPDATE_USER(10), ADD_ADDRESS(8),
+        UPDATE_ADDRESS(5), DELETE_ADDRESS(5), REGISTER(5);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        static Operation pick(SplittableRandom random) {
+            int roll = random.nextInt(100);
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            return VALIDATE;
+        }
+    }
+
+    private record SeededUser(long id, String username, ConcurrentLinkedDeque<Long> addressIds) {
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final AtomicLong registrations = new AtomicLong();
+
+    @Test
+    void userEndpointsUnderLoad() throws Exception {
+        List<SeededUser> users = seedUsers();
+
+        run(users, WARMUP_SECONDS, new LatencyReport());
+        LatencyReport report = new LatencyReport();
+        run(users, DURATION_SECONDS, report);
+
+        LoadTestReports.write("user-load", String.format(
+                "user-service load test: concurrency=%d, duration=%ds, users=%d%n%s", CONCURRENCY, DURATION_SECONDS, USERS, report.format()));
+
+        String writeBaseline = System.getProperty("loadtest.writeBaseline");
+        if (writeBaseline != null) {
+            report.writeBaseline(Path.of(writeBaseline));
+        }
+        String baseline = System.getProperty("loadtest.baseline");
+        if (baseline != null) {
+            double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.2"));
+            List<String> regressions = report.regressionsAgainst(Path.of(baseline), tolerance);
+            assertTrue(regressions.isEmpty(), "Load test regressed against " + baseline + ": " + regressions);
+        }
+    }
+
+    private List<SeededUser> seedUsers() throws Exception {
+        LatencyReport ignored = new LatencyReport();
+        List<SeededUser> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new SeededUser(register("seed-" + i, ignored), "seed-" + i, new ConcurrentLinkedDeque<>()));
+        }
+        return users;
+    }
+
+    private void run(List<SeededUser> users, int seconds, LatencyReport report) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        report.start();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < CONCURRENCY; worker++) {
+                SplittableRandom random = new SplittableRandom(SEED + worker);
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        SeededUser user = users.get(random.nextInt(users.size()));
+                        try {
+                            execute(Operation.pick(random), user, random, report);
+                        } catch (Exception e) {
+                            report.record("exception", 0, false);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        report.stop();
+    }
+
+    private void execute(Operation operation, SeededUser user, SplittableRandom random, LatencyReport report)
+            throws Exception {
+        switch (operation) {
+            case VALIDATE -> send("validate", report, post("/validate",
+                    Map.of("username", user.username(), "password", PASSWORD)));
+            case GET_USER -> send("getUser", report, get("/" + user.id()));
+            case LIST_ADDRESSES -> send("listAddresses", report, get("/" + user.id() + "/addresses"));
+            case UPDATE_USER -> send("updateUser", report, put("/" + user.id(),
+                    Map.of("firstName", "Load" + random.nextInt(1000), "phoneNumber", "555" + random.nextInt(10000))));
+            case ADD_ADDRESS -> addAddress(user, random, report);
+            case UPDATE_ADDRESS -> {
+                Long addressId = user.addressIds().peekFirst();
+                if (addressId == null) {
+                    addAddress(user, random, report);
+                } else {
+                    send("updateAddress", report, put("/addresses/" + addressId, address(random)));
+                }
+            }
+            case DELETE_ADDRESS -> {
+                Long addressId = user.addressIds().pollLast();
+                if (addressId == null) {
+                    addAddress(user, random, report);
+                } else {
+                    send("deleteAddress", report, HttpRequest.newBuilder(uri("/addresses/" + addressId))
+                            .DELETE().build());
+                }
+            }
+            case REGISTER -> register("load-" + SEED + "-" + registrations.incrementAndGet(), report);
+        }
+    }
+
+    private void addAddress(SeededUser user, SplittableRandom random, LatencyReport report) throws Exception {
+        if (user.addressIds().size() >= MAX_ADDRESSES_PER_USER) {
+            return;
+        }
+        HttpResponse<String> response = send("addAddress", report, post("/" + user.id() + "/addresses",
+                address(random)));
+        if (response.statusCode() == 200) {
+            user.addressIds().addFirst(objectMapper.readTree(response.body()).get("id").asLong());
+        }
+    }
+
+    private long register(String username, LatencyReport report) throws Exception {
+        String email = username + "@loadtest.example.com";
+        send("register", report, post("/register", Map.of(
+                "username", username, "email", email, "password", PASSWORD, "confirmPassword", PASSWORD,
+                "fullName", "Load Test", "phoneNumber", "5550000", "role", "CUSTOMER")));
+
+        // The verification link normally arrives by email; read the token straight from the database instead
+        User user = userRepository.findByUsername(username).orElseThrow();
+        send("verify", report, get("/verify?token=" + user.getVerificationToken() + "&email=" + email
+                + "&usertype=CUSTOMER"));
+        return user.getId();
+    }
+
+    private Map<String, Object> address(SplittableRandom random) {
+        return Map.of("fullName", "Load Test", "addressLine", random.nextInt(1000) + " Main Street",
+                "city", "Pune", "state", "MH", "zipCode", "4110" + random.nextInt(10), "phone", "5550000",
+                "default", random.nextInt(10) == 0);
+    }
+
+    private HttpResponse<String> send(String endpoint, LatencyReport report, HttpRequest request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        report.record(endpoint, System.nanoTime() - start, response.statusCode() < 400);
+        return response;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) throws Exception {
+        return HttpRequest.newBuilder(uri(path)).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))).build();
+    }
+
+    private HttpRequest put(String path, Object body) throws Exception {
+        return HttpRequest.newBuilder(uri(path)).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + "/api/users" + path);
+    }
+}
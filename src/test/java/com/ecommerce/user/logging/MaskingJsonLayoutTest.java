@@ -0,0 +1,47 @@
+package com.ecommerce.user.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaskingJsonLayoutTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("com.ecommerce.user.service.UserService");
+    private final MaskingJsonLayout layout = new MaskingJsonLayout();
+
+    @Test
+    void rendersOneJsonLineWithPiiMasked() throws Exception {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        layout.setContext(context);
+        layout.start();
+        LoggingEvent event = new LoggingEvent(Logger.FQCN, logger, Level.INFO,
+                "Verifying user: {} with token {} and\n\"quoted\" hash {}",
+                null, new Object[] { "alice@example.com", "123e4567-e89b-12d3-a456-426614174000",
+                        "$2a$10$abcdefghijklmnopqrstuuJ1Y5o0B8rYyHf4l6x0W8m6j7w3QeYc2" });
+
+        String line = layout.doLayout(event);
+
+        assertTrue(line.endsWith(System.lineSeparator()));
+        assertEquals(1, line.strip().lines().count());
+        JsonNode json = new ObjectMapper().readTree(line);
+        assertEquals("INFO", json.get("level").asText());
+        assertEquals("user-service", json.get("service").asText());
+        assertEquals("com.ecommerce.user.service.UserService", json.get("logger").asText());
+        String message = json.get("message").asText();
+        assertFalse(message.contains("alice@example.com"), message);
+        assertTrue(message.contains("a***"), message);
+        assertTrue(message.contains("[token]"), message);
+        assertTrue(message.contains("[bcrypt]"), message);
+        assertTrue(message.contains("\n\"quoted\""), message);
+    }
+}
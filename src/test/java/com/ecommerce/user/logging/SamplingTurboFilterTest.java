@@ -0,0 +1,37 @@
+package com.ecommerce.user.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("com.ecommerce.user.service.UserService");
+
+    @Test
+    void samplingOnlyDropsInfoFromConfiguredLoggers() {
+        SamplingTurboFilter sampling = new SamplingTurboFilter();
+        sampling.setLoggers("com.ecommerce.user.service, ");
+        sampling.setRate(1_000_000);
+        sampling.start();
+        Logger other = context.getLogger("com.ecommerce.user.controller.UserController");
+
+        int kept = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (sampling.decide(null, logger, Level.INFO, "msg", null, null) != FilterReply.DENY) {
+                kept++;
+            }
+        }
+        assertTrue(kept < 5, "kept " + kept);
+        assertEquals(FilterReply.NEUTRAL,
+                sampling.decide(null, logger, Level.WARN, "msg", null, null));
+        assertEquals(FilterReply.NEUTRAL,
+                sampling.decide(null, other, Level.INFO, "msg", null, null));
+    }
+}
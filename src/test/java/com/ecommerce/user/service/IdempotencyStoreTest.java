@@ -0,0 +1,182 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.exception.IdempotencyKeyInProgressException;
+import com.ecommerce.user.exception.IdempotencyKeyMismatchException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(new ObjectMapper(),
+            Duration.ofMinutes(10), 2, Duration.ofSeconds(5));
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void replaysFirstResultForSameKeyAndBody() {
+        String first = store.execute("k1", "register", Map.of("username", "alice"), this::run);
+        String second = store.execute("k1", "register", Map.of("username", "alice"), this::run);
+
+        assertEquals("run-1", first);
+        assertEquals("run-1", second);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void rejectsSameKeyWithDifferentBody() {
+        store.execute("k1", "register", Map.of("username", "alice"), this::run);
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> store.execute("k1", "register", Map.of("username", "mallory"), this::run));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void scopesKeysPerClient() {
+        authenticate("alice");
+        store.execute("k1", "updateUser:1", null, this::run);
+        authenticate("bob");
+        String other = store.execute("k1", "updateUser:1", null, this::run);
+
+        assertEquals("run-2", other);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnceAndShareTheResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = executor.submit(() -> store.execute("k1", "register", "body", () -> {
+                started.countDown();
+                await(release);
+                return run();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(executor.submit(() -> store.execute("k1", "register", "body", this::run)));
+            }
+            release.countDown();
+
+            assertEquals("run-1", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("run-1", follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedExecutionCanBeRetried() {
+        assertThrows(IllegalStateException.class, () -> store.execute("k1", "register", "body", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("run-1", store.execute("k1", "register", "body", this::run));
+        assertEquals("run-1", store.execute("k1", "register", "body", this::run));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void followerGivesUpAfterWaitTimeout() throws Exception {
+        IdempotencyStore impatient = new IdempotencyStore(new ObjectMapper(),
+                Duration.ofMinutes(10), 10, Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> impatient.execute("k1", "register", "body", () -> {
+                started.countDown();
+                await(release);
+                return run();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(IdempotencyKeyInProgressException.class,
+                    () -> impatient.execute("k1", "register", "body", this::run));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void evictionKeepsInFlightEntries() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> inFlight = executor.submit(() -> store.execute("slow", "register", "body", () -> {
+                started.countDown();
+                await(release);
+                return "slow";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            store.execute("a", "register", "body", this::run);
+            store.execute("b", "register", "body", this::run);
+            store.execute("c", "register", "body", this::run);
+            assertEquals(2, store.size());
+
+            release.countDown();
+            assertEquals("slow", inFlight.get(5, TimeUnit.SECONDS));
+            // Still remembered: the retry replays instead of running again
+            assertEquals("slow", store.execute("slow", "register", "body", this::run));
+            assertEquals(3, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void requestsWithoutKeyAlwaysRun() {
+        store.execute(null, "register", "body", this::run);
+        store.execute(" ", "register", "body", this::run);
+
+        assertEquals(2, runs.get());
+    }
+
+    private String run() {
+        return "run-" + runs.incrementAndGet();
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.audit.LoginAuditTrail;
+import com.ecommerce.user.config.CustomUserDetailsService;
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserRole;
+import com.ecommerce.user.repository.AddressRepository;
+import com.ecommerce.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sends waves of concurrent lookups for a few hot accounts through {@code getUserById}, {@code getUserByUsername}
+ * and {@code loadUserByUsername} on virtual threads, against a repository whose queries are held open until every
+ * caller of the wave has joined one, and checks each wave costs one query per key while every caller still gets
+ * its own copy of the user.
+ */
+class LookupCoalescingTest {
+
+    private static final int WAVES = 5;
+    private static final int CALLERS_PER_KEY = 200;
+    private static final List<String> HOT_USERNAMES = List.of("merchant-1", "merchant-2", "merchant-3");
+    private static final List<Long> HOT_IDS = List.of(101L, 102L, 103L);
+
+    @Test
+    void concurrentLookupsShareOneQueryPerKey() throws Exception {
+        UserRepository repository = mock(UserRepository.class);
+        AddressRepository addressRepository = mock(AddressRepository.class);
+        List<User> loaded = new ArrayList<>();
+        AtomicReference<CountDownLatch> release = new AtomicReference<>();
+        when(repository.findByUsername(anyString())).thenAnswer(invocation ->
+                held(release.get(), loaded, user(0L, invocation.getArgument(0))));
+        when(repository.findById(anyLong())).thenAnswer(invocation ->
+                held(release.get(), loaded, user(invocation.getArgument(0), "user-" + invocation.getArgument(0))));
+        when(addressRepository.findByUserId(anyLong())).thenAnswer(invocation ->
+                List.of(Address.builder().id(invocation.getArgument(0)).city("Pune").build()));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserService userService = new UserService(repository, addressRepository,
+                mock(UserEventPublisher.class), new ObjectMapper(), mock(PasswordEncoder.class), mock(LoginAuditTrail.class),
+                meterRegistry);
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userService);
+
+        int keys = HOT_USERNAMES.size() + HOT_IDS.size();
+        for (int wave = 0; wave < WAVES; wave++) {
+            CountDownLatch start = new CountDownLatch(1);
+            release.set(new CountDownLatch(1));
+            List<Future<Object>> calls = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < CALLERS_PER_KEY; i++) {
+                    boolean viaSecurity = i % 2 == 0;
+                    for (String username : HOT_USERNAMES) {
+                        calls.add(executor.submit(() -> {
+                            start.await();
+                            return viaSecurity ? userDetailsService.loadUserByUsername(username)
+                                    : userService.getUserByUsername(username);
+                        }));
+                    }
+                    for (Long id : HOT_IDS) {
+                        calls.add(executor.submit(() -> {
+                            start.await();
+                            return userService.getUserById(id);
+                        }));
+                    }
+                }
+                start.countDown();
+                // Every query of the wave stays open until all other callers have joined one
+                awaitCoalesced(meterRegistry, (long) (wave + 1) * (CALLERS_PER_KEY - 1) * keys);
+                release.get().countDown();
+            }
+            IdentityHashMap<Object, Boolean> handedOut = new IdentityHashMap<>();
+            for (Future<Object> call : calls) {
+                Object result = call.get();
+                User user = result instanceof User u ? u : null;
+                if (user != null) {
+                    assertTrue(loaded.stream().noneMatch(entity -> entity == user), "caller got the loaded entity");
+                    assertEquals(user.getId() == 0L ? 0 : 1, user.getAddresses().size());
+                    user.getAddresses().forEach(address -> assertSame(user, address.getUser()));
+                }
+                assertNull(handedOut.put(result, true), "two callers got the same instance");
+            }
+        }
+
+        for (String username : HOT_USERNAMES) {
+            verify(repository, times(WAVES)).findByUsername(username);
+        }
+        for (Long id : HOT_IDS) {
+            verify(repository, times(WAVES)).findById(id);
+            verify(addressRepository, times(WAVES)).findByUserId(id);
+        }
+        verify(addressRepository, never()).findByUserId(0L);
+        assertEquals((long) WAVES * (CALLERS_PER_KEY - 1) * keys, coalesced(meterRegistry));
+    }
+
+    private static void awaitCoalesced(SimpleMeterRegistry meterRegistry, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (coalesced(meterRegistry) < expected) {
+            assertTrue(System.nanoTime() < deadline, "callers never joined the in-flight queries");
+            Thread.sleep(5);
+        }
+    }
+
+    private static long coalesced(SimpleMeterRegistry meterRegistry) {
+        return (long) (meterRegistry.counter("user.lookup.coalesced", "lookup", "username").count()
+                + meterRegistry.counter("user.lookup.coalesced", "lookup", "id").count());
+    }
+
+    private static Optional<User> held(CountDownLatch release, List<User> loaded, User user)
+            throws InterruptedException {
+        release.await();
+        synchronized (loaded) {
+            loaded.add(user);
+        }
+        return Optional.of(user);
+    }
+
+    private static User user(Long id, String username) {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .email(username + "@loadtest.example.com")
+                .password("not-a-real-hash")
+                .role(UserRole.MERCHANT)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserRole;
+import com.ecommerce.user.repository.AddressRepository;
+import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.sharding.ShardDirectory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UnverifiedUserSweepTest {
+
+    private static final long STALE = System.currentTimeMillis() - Duration.ofDays(8).toMillis();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @MockBean
+    private UserEventPublisher eventPublisher;
+
+    @Test
+    void walksStaleUnverifiedUsersChunkByChunk() {
+        List<Long> stale = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            stale.add(seed("sweep-stale-" + i, false, STALE).getId());
+        }
+        Long verified = seed("sweep-verified", true, STALE).getId();
+        Long fresh = seed("sweep-fresh", false, System.currentTimeMillis()).getId();
+        List<String> announced = new ArrayList<>();
+        doAnswer(invocation -> announced.addAll(invocation.getArgument(2)))
+                .when(eventPublisher).sendAll(anyString(), eq("USER_DELETED"), any());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        purgeJob(meterRegistry).purgeStaleUnverifiedUsers();
+
+        stale.forEach(id -> assertTrue(isTombstoned(id), "user " + id));
+        assertFalse(isTombstoned(verified));
+        assertFalse(isTombstoned(fresh));
+        assertEquals(stale.stream().map(String::valueOf).toList(), announced);
+        assertEquals(7, meterRegistry.counter("user.purge.unverified.users").count());
+        assertEquals(4, meterRegistry.timer("user.purge.unverified.batch").count());
+        assertEquals((double) stale.get(stale.size() - 1), meterRegistry.get("user.purge.unverified.cursor").gauge().value());
+    }
+
+    @Test
+    void userVerifiedMidSweepIsNotTombstoned() {
+        Long first = seed("midsweep-a", false, STALE).getId();
+        Long latecomer = seed("midsweep-b", false, STALE).getId();
+        // The user verifies after the sweep has read its chunk's candidates but before the chunk is updated
+        UserRepository racingRepository = mock(UserRepository.class, delegatesTo(userRepository));
+        doAnswer(invocation -> {
+            List<Long> candidates = userRepository.findUnverifiedIdsCreatedBefore(invocation.getArgument(0),
+                    invocation.getArgument(1), invocation.getArgument(2));
+            if (candidates.contains(latecomer)) {
+                jdbcTemplate.update("UPDATE users SET is_verified = true WHERE id = ?", latecomer);
+            }
+            return candidates;
+        }).when(racingRepository).findUnverifiedIdsCreatedBefore(anyLong(), anyLong(), anyInt());
+        List<String> announced = new ArrayList<>();
+        doAnswer(invocation -> announced.addAll(invocation.getArgument(2)))
+                .when(eventPublisher).sendAll(anyString(), eq("USER_DELETED"), any());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new UserPurgeJob(racingRepository, addressRepository, eventPublisher,
+                applicationContext.getBeanProvider(ShardDirectory.class), meterRegistry, 100, 100,
+                Duration.ofDays(7), Duration.ofHours(1)).purgeStaleUnverifiedUsers();
+
+        assertTrue(isTombstoned(first));
+        assertFalse(isTombstoned(latecomer));
+        assertEquals(List.of(String.valueOf(first)), announced);
+        assertEquals(1, meterRegistry.counter("user.purge.unverified.users").count());
+    }
+
+    @Test
+    void guardedUpdateSkipsUsersThatNoLongerQualify() {
+        Long unverified = seed("guard-unverified", false, STALE).getId();
+        Long verified = seed("guard-verified", true, STALE).getId();
+        Long fresh = seed("guard-fresh", false, System.currentTimeMillis()).getId();
+        long createdBefore = System.currentTimeMillis() - Duration.ofDays(7).toMillis();
+        long deletedAt = System.currentTimeMillis();
+
+        assertEquals(1, userRepository.markUnverifiedDeleted(List.of(unverified, verified, fresh),
+                createdBefore, deletedAt));
+        assertEquals(List.of(unverified),
+                userRepository.findIdsDeletedAt(List.of(unverified, verified, fresh), deletedAt));
+        assertEquals(0, userRepository.markUnverifiedDeleted(List.of(unverified), createdBefore, deletedAt + 1));
+    }
+
+    private UserPurgeJob purgeJob(SimpleMeterRegistry meterRegistry) {
+        return new UserPurgeJob(userRepository, addressRepository, eventPublisher,
+                applicationContext.getBeanProvider(ShardDirectory.class), meterRegistry, 2, 100,
+                Duration.ofDays(7), Duration.ofHours(1));
+    }
+
+    private User seed(String username, boolean verified, long createdAt) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@sweep.example.com")
+                .password("not-a-real-hash")
+                .role(UserRole.CUSTOMER)
+                .isVerified(verified)
+                .createdAt(createdAt)
+                .build());
+    }
+
+    private boolean isTombstoned(Long id) {
+        return jdbcTemplate.queryForObject("SELECT deleted_at IS NOT NULL FROM users WHERE id = ?",
+                Boolean.class, id);
+    }
+}
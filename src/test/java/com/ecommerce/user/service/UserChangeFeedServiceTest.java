@@ -0,0 +1,171 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.dto.UserChange;
+import com.ecommerce.user.dto.UserChangesResponse;
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserRole;
+import com.ecommerce.user.exception.WatermarkExpiredException;
+import com.ecommerce.user.repository.AddressRepository;
+import com.ecommerce.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserChangeFeedServiceTest {
+
+    // Everything the other tests write is stamped after the settle horizon used here, so stays out of view
+    private static final Duration SETTLE_TIME = Duration.ofMinutes(39);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private UserEventPublisher eventPublisher;
+
+    @Test
+    void onlyReportsChangesThatHaveSettled() {
+        long base = System.currentTimeMillis() - Duration.ofMinutes(45).toMillis();
+        User settled = seed("feed-settled", base + 1_000);
+        User tombstoned = seed("feed-tombstoned", base + 1_500);
+        jdbcTemplate.update("UPDATE users SET deleted_at = ? WHERE id = ?", base + 1_500, tombstoned.getId());
+        User unsettled = seed("feed-unsettled", System.currentTimeMillis() - Duration.ofMinutes(30).toMillis());
+        addressRepository.save(Address.builder().user(settled).city("Pune").build());
+
+        UserChangeFeedService feed = feed(500);
+        long watermark = feed.currentWatermark();
+        UserChangesResponse response = feed.getChanges(base, null, null);
+
+        List<Long> mine = List.of(settled.getId(), tombstoned.getId(), unsettled.getId());
+        List<UserChange> changes = response.getChanges().stream().filter(c -> mine.contains(c.getId())).toList();
+        assertEquals(List.of(settled.getId(), tombstoned.getId()), changes.stream().map(UserChange::getId).toList());
+        UserChange live = changes.get(0);
+        assertEquals("feed-settled", live.getUsername());
+        assertEquals(1, live.getAddresses().size());
+        UserChange deleted = changes.get(1);
+        assertTrue(deleted.isDeleted());
+        assertNull(deleted.getUsername());
+        assertFalse(response.isHasMore());
+        assertNull(response.getAfterId());
+        assertTrue(response.getWatermark() >= watermark);
+        assertTrue(response.getWatermark() < unsettled.getUpdatedAt());
+    }
+
+    @Test
+    void pagesThroughTheSameMillisecondWithAfterId() {
+        long base = System.currentTimeMillis() - Duration.ofMinutes(44).toMillis();
+        List<Long> expected = List.of(seed("page-1", base + 1_000).getId(), seed("page-2", base + 2_000).getId(),
+                seed("page-3", base + 2_000).getId(), seed("page-4", base + 3_000).getId(),
+                seed("page-5", base + 4_000).getId());
+
+        UserChangeFeedService feed = feed(2);
+        List<Long> seen = new ArrayList<>();
+        long since = base;
+        Long afterId = null;
+        UserChangesResponse page;
+        int pages = 0;
+        do {
+            page = feed.getChanges(since, afterId, null);
+            seen.addAll(ids(page));
+            since = page.getWatermark();
+            afterId = page.getAfterId();
+            pages++;
+        } while (page.isHasMore());
+
+        assertEquals(expected, seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void watermarkOlderThanTombstoneRetentionIsGone() throws Exception {
+        UserChangeFeedService feed = feed(500);
+        long expired = feed.currentWatermark() - Duration.ofHours(2).toMillis();
+
+        assertThrows(WatermarkExpiredException.class, () -> feed.getChanges(expired, null, null));
+        mockMvc.perform(get("/api/users/changes").param("since", "0")).andExpect(status().isGone());
+    }
+
+    @Test
+    void addressWritesBumpTheUserWatermark() {
+        long stale = System.currentTimeMillis() - Duration.ofHours(1).toMillis();
+        User user = seed("feed-touch", stale);
+
+        Address added = userService.addAddress(user.getId(), Address.builder().city("Pune").build());
+        long afterAdd = updatedAt(user.getId());
+        assertTrue(afterAdd > stale);
+
+        setUpdatedAt(user.getId(), stale);
+        userService.updateAddress(added.getId(), Address.builder().city("Mumbai").build());
+        assertTrue(updatedAt(user.getId()) > stale);
+
+        setUpdatedAt(user.getId(), stale);
+        userService.deleteAddress(added.getId());
+        assertTrue(updatedAt(user.getId()) > stale);
+    }
+
+    private UserChangeFeedService feed(int pageSize) {
+        return new UserChangeFeedService(userRepository, addressRepository, objectMapper, SETTLE_TIME,
+                Duration.ofHours(1), pageSize);
+    }
+
+    private User seed(String username, long updatedAt) {
+        User user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@feed.example.com")
+                .password("not-a-real-hash")
+                .role(UserRole.CUSTOMER)
+                .createdAt(updatedAt)
+                .build());
+        setUpdatedAt(user.getId(), updatedAt);
+        user.setUpdatedAt(updatedAt);
+        return user;
+    }
+
+    private void setUpdatedAt(Long id, long updatedAt) {
+        jdbcTemplate.update("UPDATE users SET updated_at = ? WHERE id = ?", updatedAt, id);
+    }
+
+    private long updatedAt(Long id) {
+        return jdbcTemplate.queryForObject("SELECT updated_at FROM users WHERE id = ?", Long.class, id);
+    }
+
+    private static List<Long> ids(UserChangesResponse response) {
+        return response.getChanges().stream().map(UserChange::getId).toList();
+    }
+}
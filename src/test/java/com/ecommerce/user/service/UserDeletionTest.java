@@ -0,0 +1,147 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.dto.UserRegistrationRequest;
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserRole;
+import com.ecommerce.user.repository.AddressRepository;
+import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.sharding.ShardDirectory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserDeletionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @MockBean
+    private UserEventPublisher eventPublisher;
+
+    @Test
+    void deletedUserIsHiddenFromReadsAndDeletedOnlyOnce() throws Exception {
+        User user = seed("tombstoned", 2);
+        Long addressId = addressRepository.findByUserId(user.getId()).get(0).getId();
+
+        mockMvc.perform(delete("/api/users/" + user.getId())).andExpect(status().isOk());
+
+        assertTrue(userRepository.findById(user.getId()).isEmpty());
+        mockMvc.perform(get("/api/users/" + user.getId() + "/addresses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        assertTrue(userRepository.findByUsername("tombstoned").isEmpty());
+        assertTrue(addressRepository.findById(addressId).isEmpty());
+        assertTrue(userRepository.findAll().stream().noneMatch(u -> u.getId().equals(user.getId())));
+        // Still physically present until purged
+        assertEquals(1, rows("users", "id", user.getId()));
+
+        mockMvc.perform(delete("/api/users/" + user.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void tombstonedUsernameCannotBeRegisteredAgainUntilPurged() throws Exception {
+        User user = seed("reused", 0);
+        userRepository.markDeleted(user.getId(), System.currentTimeMillis());
+
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setUsername("reused");
+        request.setEmail("reused@deletion.example.com");
+        request.setPassword("password123");
+        request.setConfirmPassword("password123");
+        request.setFullName("Reused Name");
+        request.setPhoneNumber("1234567890");
+        request.setRole("CUSTOMER");
+
+        mockMvc.perform(post("/api/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value(containsString("deleted")));
+    }
+
+    @Test
+    void purgeRemovesExpiredTombstonesAndTheirAddressesInChunks() {
+        User expired = seed("purge-expired", 7);
+        User recent = seed("purge-recent", 3);
+        User live = seed("purge-live", 2);
+        userRepository.markDeleted(expired.getId(), System.currentTimeMillis() - Duration.ofHours(2).toMillis());
+        userRepository.markDeleted(recent.getId(), System.currentTimeMillis());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserPurgeJob purgeJob = new UserPurgeJob(userRepository, addressRepository, eventPublisher,
+                applicationContext.getBeanProvider(ShardDirectory.class), meterRegistry, 2, 3,
+                Duration.ofDays(7), Duration.ofHours(1));
+        purgeJob.purgeDeletedUsers();
+
+        assertEquals(0, rows("users", "id", expired.getId()));
+        assertEquals(0, rows("addresses", "user_id", expired.getId()));
+        assertEquals(1, rows("users", "id", recent.getId()));
+        assertEquals(3, rows("addresses", "user_id", recent.getId()));
+        assertEquals(2, addressRepository.findByUserId(live.getId()).size());
+        assertEquals(7, meterRegistry.counter("user.purge.addresses").count());
+        assertEquals(1, meterRegistry.counter("user.purge.users").count());
+    }
+
+    private User seed(String username, int addresses) {
+        User user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@deletion.example.com")
+                .password("not-a-real-hash")
+                .role(UserRole.CUSTOMER)
+                .createdAt(System.currentTimeMillis())
+                .build());
+        List<Address> book = new ArrayList<>();
+        for (int a = 0; a < addresses; a++) {
+            book.add(Address.builder().user(user).fullName("Deletion Test").addressLine(a + " Main Street")
+                    .city("Pune").zipCode("411001").build());
+        }
+        addressRepository.saveAll(book);
+        return user;
+    }
+
+    private int rows(String table, String column, Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?",
+                Integer.class, id);
+    }
+}
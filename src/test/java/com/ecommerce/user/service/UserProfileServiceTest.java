@@ -0,0 +1,222 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.dto.UserProfileResponse;
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserRole;
+import com.ecommerce.user.exception.UserNotFoundException;
+import com.ecommerce.user.repository.AddressRepository;
+import com.ecommerce.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserProfileServiceTest {
+
+    private static final Duration SETTLE_TIME = Duration.ofSeconds(5);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserEventPublisher eventPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserProfileService profileService;
+
+    @AfterEach
+    void shutdown() {
+        if (profileService != null) {
+            profileService.close();
+        }
+    }
+
+    @Test
+    void missFetchesOnceThenServesFromCache() {
+        User user = seed("profile-cached");
+        UserRepository users = mock(UserRepository.class, delegatesTo(userRepository));
+        AddressRepository addresses = mock(AddressRepository.class, delegatesTo(addressRepository));
+        profileService = service(users, addresses, Duration.ofSeconds(5));
+
+        UserProfileService.Result miss = profileService.getProfile(user.getId(), null);
+        UserProfileService.Result hit = profileService.getProfile(user.getId(), null);
+
+        assertEquals(UserProfileResponse.Status.COMPLETE, miss.profile().getStatus());
+        assertEquals("profile-cached", miss.profile().getUsername());
+        assertEquals(2, miss.profile().getAddresses().size());
+        assertEquals("Mumbai", miss.profile().getDefaultAddress().getCity());
+        assertEquals("\"" + user.getId() + "." + user.getUpdatedAt() + "\"", miss.etag());
+        assertSame(miss.profile(), hit.profile());
+        assertEquals(miss.etag(), hit.etag());
+        // The miss takes its version from the fetched user; only the hit revalidates with the key lookup
+        verify(users, times(1)).findByIdWithTimeout(anyLong(), anyInt());
+        verify(addresses, times(1)).findByUserIdWithTimeout(anyLong(), anyInt());
+        verify(users, times(1)).findUpdatedAtById(user.getId());
+        assertEquals(1, requests("miss"));
+        assertEquals(1, requests("hit"));
+    }
+
+    @Test
+    void changedUserIsFetchedAgain() {
+        User user = seed("profile-changed");
+        profileService = service(userRepository, addressRepository, Duration.ofSeconds(5));
+        UserProfileService.Result first = profileService.getProfile(user.getId(), null);
+
+        setUpdatedAt(user.getId(), user.getUpdatedAt() + 1);
+        UserProfileService.Result second = profileService.getProfile(user.getId(), null);
+
+        assertEquals(user.getUpdatedAt() + 1, second.profile().getVersion());
+        assertNotEquals(first.etag(), second.etag());
+        assertEquals(2, requests("miss"));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        User user = seed("profile-etag");
+        profileService = service(userRepository, addressRepository, Duration.ofSeconds(5));
+        String etag = "\"" + user.getId() + "." + user.getUpdatedAt() + "\"";
+
+        // Both on a cold cache, where the fetched user carries the version, and on a cached copy
+        assertTrue(profileService.getProfile(user.getId(), etag).notModified());
+        assertTrue(profileService.getProfile(user.getId(), "\"other\", W/" + etag).notModified());
+        assertEquals(2, requests("not_modified"));
+
+        mockMvc.perform(get("/api/users/" + user.getId() + "/profile").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/api/users/" + user.getId() + "/profile").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void slowSectionIsInterruptedAndReportedMissing() throws Exception {
+        User user = seed("profile-partial");
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AddressRepository slow = mock(AddressRepository.class, delegatesTo(addressRepository));
+        doAnswer(invocation -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return List.of();
+        }).when(slow).findByUserIdWithTimeout(anyLong(), anyInt());
+        profileService = service(userRepository, slow, Duration.ofMillis(200));
+
+        UserProfileService.Result first = profileService.getProfile(user.getId(), null);
+        profileService.getProfile(user.getId(), null);
+
+        assertEquals(UserProfileResponse.Status.PARTIAL, first.profile().getStatus());
+        assertEquals(List.of("addresses"), first.profile().getMissing());
+        assertEquals("profile-partial", first.profile().getUsername());
+        assertNull(first.profile().getAddresses());
+        assertNull(first.etag());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "slow section was not interrupted");
+        // Never cached, so the second call fetched again
+        verify(slow, times(2)).findByUserIdWithTimeout(anyLong(), anyInt());
+        assertEquals(2, requests("partial"));
+    }
+
+    @Test
+    void unsettledProfileGetsNoEtagAndIsNotCached() {
+        User user = seed("profile-unsettled");
+        setUpdatedAt(user.getId(), System.currentTimeMillis());
+        UserRepository users = mock(UserRepository.class, delegatesTo(userRepository));
+        profileService = service(users, addressRepository, Duration.ofSeconds(5));
+
+        UserProfileService.Result result = profileService.getProfile(user.getId(), null);
+        profileService.getProfile(user.getId(), null);
+
+        assertNotNull(result.profile());
+        assertNull(result.etag());
+        verify(users, times(2)).findByIdWithTimeout(anyLong(), anyInt());
+        verify(users, never()).findUpdatedAtById(anyLong());
+    }
+
+    @Test
+    void deletedUserIsNotFoundEvenWhenCached() {
+        User user = seed("profile-deleted");
+        profileService = service(userRepository, addressRepository, Duration.ofSeconds(5));
+        profileService.getProfile(user.getId(), null);
+
+        userRepository.markDeleted(user.getId(), System.currentTimeMillis());
+
+        assertThrows(UserNotFoundException.class, () -> profileService.getProfile(user.getId(), null));
+        assertThrows(UserNotFoundException.class, () -> profileService.getProfile(Long.MAX_VALUE, null));
+    }
+
+    private UserProfileService service(UserRepository users, AddressRepository addresses, Duration deadline) {
+        return new UserProfileService(users, addresses, meterRegistry, deadline, SETTLE_TIME, 100);
+    }
+
+    private User seed(String username) {
+        User user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@profile.example.com")
+                .password("not-a-real-hash")
+                .role(UserRole.CUSTOMER)
+                .createdAt(System.currentTimeMillis())
+                .build());
+        addressRepository.saveAll(List.of(
+                Address.builder().user(user).city("Pune").build(),
+                Address.builder().user(user).city("Mumbai").isDefault(true).build()));
+        long settled = System.currentTimeMillis() - Duration.ofMinutes(1).toMillis();
+        setUpdatedAt(user.getId(), settled);
+        user.setUpdatedAt(settled);
+        return user;
+    }
+
+    private void setUpdatedAt(Long id, long updatedAt) {
+        jdbcTemplate.update("UPDATE users SET updated_at = ? WHERE id = ?", updatedAt, id);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("user.profile.requests", "result", result).count();
+    }
+}
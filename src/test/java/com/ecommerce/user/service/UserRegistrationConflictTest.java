@@ -0,0 +1,74 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.audit.LoginAuditTrail;
+import com.ecommerce.user.dto.UserRegistrationRequest;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.exception.UserAlreadyExistsException;
+import com.ecommerce.user.repository.AddressRepository;
+import com.ecommerce.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A registration that passes the up-front checks can still lose the insert to a concurrent registration or
+ * to a tombstoned account. Only the latter gets the "deleted and not yet purged" explanation.
+ */
+class UserRegistrationConflictTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final DataIntegrityViolationException duplicate = new DataIntegrityViolationException("duplicate key");
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).thenThrow(duplicate);
+        userService = new UserService(userRepository, mock(AddressRepository.class), mock(UserEventPublisher.class),
+                new ObjectMapper(), mock(PasswordEncoder.class), mock(LoginAuditTrail.class),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void conflictWithALiveAccountIsLeftToTheGenericHandler() {
+        when(userRepository.countDeletedHolding("racer", "racer@example.com")).thenReturn(0L);
+
+        assertSame(duplicate, assertThrows(DataIntegrityViolationException.class,
+                () -> userService.registerUser(request("racer", "racer@example.com"))));
+    }
+
+    @Test
+    void conflictWithATombstonedAccountSaysSo() {
+        when(userRepository.countDeletedHolding("reused", "reused@example.com")).thenReturn(1L);
+
+        UserAlreadyExistsException e = assertThrows(UserAlreadyExistsException.class,
+                () -> userService.registerUser(request("reused", "reused@example.com")));
+        assertTrue(e.getMessage().contains("deleted"));
+    }
+
+    private static UserRegistrationRequest request(String username, String email) {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword("password123");
+        request.setConfirmPassword("password123");
+        request.setFullName("Conflict Test");
+        request.setPhoneNumber("1234567890");
+        request.setRole("CUSTOMER");
+        return request;
+    }
+}
@@ -0,0 +1,177 @@
+package com.ecommerce.user.sharding;
+
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserRole;
+import com.ecommerce.user.repository.AddressRepository;
+import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.service.UserEventPublisher;
+import com.ecommerce.user.service.UserPurgeJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({ "test", "sharded" })
+class ShardRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Autowired
+    private ShardRouter router;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @MockBean
+    private UserEventPublisher eventPublisher;
+
+    @Test
+    void placesUsersByUsernameAndAddressesWithTheirUser() {
+        Set<Integer> shards = new HashSet<>();
+        for (int i = 0; i < 8; i++) {
+            String username = "placement-" + i;
+            User user = save(username);
+            addressRepository.save(address(user));
+
+            int shard = router.shardForNewUser(username);
+            shards.add(shard);
+            assertEquals(shard, router.shardForId(user.getId()));
+            for (int s = 0; s < router.shardCount(); s++) {
+                JdbcTemplate jdbc = new JdbcTemplate(dataSource.shard(s));
+                int expected = s == shard ? 1 : 0;
+                assertEquals(expected, jdbc.queryForObject(
+                        "SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, username));
+                assertEquals(expected, jdbc.queryForObject(
+                        "SELECT COUNT(*) FROM addresses WHERE user_id = ?", Integer.class, user.getId()));
+            }
+        }
+        assertTrue(shards.size() > 1, "all users landed on one shard");
+    }
+
+    @Test
+    void routesByIdAndByDirectoryLookup() throws Exception {
+        User user = save("routed");
+        Address address = addressRepository.save(address(user));
+
+        assertEquals("routed", userRepository.findById(user.getId()).orElseThrow().getUsername());
+        assertEquals(user.getId(), userRepository.findByUsername("routed").orElseThrow().getId());
+        assertEquals(user.getId(), userRepository.findByEmail("routed@sharded.example.com").orElseThrow().getId());
+        assertTrue(userRepository.findByUsername("nobody").isEmpty());
+        assertEquals(List.of(address.getId()),
+                addressRepository.findByUserId(user.getId()).stream().map(Address::getId).toList());
+
+        mockMvc.perform(get("/api/users/" + user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("routed"))
+                .andExpect(jsonPath("$.addresses[0].id").value(address.getId()));
+        mockMvc.perform(get("/api/users/" + user.getId() + "/addresses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].city").value("Pune"));
+        mockMvc.perform(get("/api/users/" + user.getId() + "/profile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETE"))
+                .andExpect(jsonPath("$.addresses[0].city").value("Pune"));
+    }
+
+    @Test
+    void scatterGatherMergesEveryShard() {
+        long before = userRepository.count();
+        List<Long> ids = List.of(save("gather-a").getId(), save("gather-b").getId(),
+                save("gather-c").getId(), save("gather-d").getId(), save("gather-e").getId());
+
+        assertEquals(before + ids.size(), userRepository.count());
+        List<Long> all = userRepository.findAll().stream().map(User::getId).toList();
+        assertTrue(all.containsAll(ids));
+        long onShards = 0;
+        for (int s = 0; s < router.shardCount(); s++) {
+            onShards += new JdbcTemplate(dataSource.shard(s)).queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE deleted_at IS NULL", Long.class);
+        }
+        assertEquals(onShards, all.size());
+    }
+
+    @Test
+    void unverifiedSweepWalksEveryShardInIdOrder() {
+        long stale = System.currentTimeMillis() - Duration.ofDays(8).toMillis();
+        List<Long> ids = new ArrayList<>();
+        Set<Integer> shards = new HashSet<>();
+        for (int i = 0; i < 9; i++) {
+            User user = save("sweep-" + i);
+            user.setCreatedAt(stale);
+            userRepository.save(user);
+            ids.add(user.getId());
+            shards.add(router.shardForId(user.getId()));
+        }
+        assertTrue(shards.size() > 1, "all users landed on one shard");
+        List<String> announced = new ArrayList<>();
+        doAnswer(invocation -> announced.addAll(invocation.getArgument(2)))
+                .when(eventPublisher).sendAll(anyString(), eq("USER_DELETED"), any());
+
+        new UserPurgeJob(userRepository, addressRepository, eventPublisher,
+                applicationContext.getBeanProvider(ShardDirectory.class), new SimpleMeterRegistry(), 2, 100,
+                Duration.ofDays(7), Duration.ofHours(1)).purgeStaleUnverifiedUsers();
+
+        assertEquals(ids.stream().sorted().map(String::valueOf).toList(), announced);
+        for (Long id : ids) {
+            assertEquals(Boolean.TRUE, new JdbcTemplate(dataSource.shard(router.shardForId(id))).queryForObject(
+                    "SELECT deleted_at IS NOT NULL FROM users WHERE id = ?", Boolean.class, id));
+        }
+    }
+
+    @Test
+    void unroutedAccessFailsInsteadOfPickingAShard() {
+        assertThrows(IllegalStateException.class, () -> dataSource.getConnection().close());
+        assertThrows(IllegalArgumentException.class, () -> userRepository.findByUsername(null));
+    }
+
+    private User save(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@sharded.example.com")
+                .password("not-a-real-hash")
+                .role(UserRole.CUSTOMER)
+                .createdAt(System.currentTimeMillis())
+                .build());
+    }
+
+    private static Address address(User user) {
+        return Address.builder().user(user).fullName("Shard Test").addressLine("1 Main Street")
+                .city("Pune").zipCode("411001").build();
+    }
+}
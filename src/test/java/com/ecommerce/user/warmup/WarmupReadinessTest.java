@@ -0,0 +1,61 @@
+package com.ecommerce.user.warmup;
+
+import com.ecommerce.user.UserServiceApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class WarmupReadinessTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void readinessStaysOutOfServiceUntilWarmupReturns() throws Exception {
+        CompletableFuture<Integer> port = new CompletableFuture<>();
+        // The web server is up before the runners start, so the probe can be asked while warm-up is running
+        SpringApplicationBuilder application = new SpringApplicationBuilder(UserServiceApplication.class)
+                .profiles("test")
+                .listeners((ApplicationListener<WebServerInitializedEvent>) event ->
+                        port.complete(event.getWebServer().getPort()));
+        CompletableFuture<ConfigurableApplicationContext> started = CompletableFuture.supplyAsync(() -> application.run(
+                "--server.port=0",
+                // Own database, so the create-drop schema does not disturb the other test contexts
+                "--spring.datasource.url=jdbc:h2:mem:warmup_readiness;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "--user.warmup.enabled=true",
+                "--user.warmup.credential-iterations=1",
+                "--user.warmup.iterations=" + Integer.MAX_VALUE,
+                "--user.warmup.max-duration=PT4S"));
+        try {
+            HttpResponse<String> during = readiness(port.get(2, TimeUnit.MINUTES));
+            assertFalse(started.isDone(), "warm-up returned before the probe was asked");
+            assertEquals(503, during.statusCode());
+            assertThat(during.body(), containsString("OUT_OF_SERVICE"));
+
+            started.get(2, TimeUnit.MINUTES);
+            HttpResponse<String> after = readiness(port.get());
+            assertEquals(200, after.statusCode());
+            assertThat(after.body(), containsString("UP"));
+        } finally {
+            started.thenAccept(ConfigurableApplicationContext::close).get(2, TimeUnit.MINUTES);
+        }
+    }
+
+    private HttpResponse<String> readiness(int port) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health/readiness"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
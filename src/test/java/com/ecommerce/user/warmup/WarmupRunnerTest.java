@@ -0,0 +1,112 @@
+package com.ecommerce.user.warmup;
+
+import com.ecommerce.user.audit.LoginAuditTrail;
+import com.ecommerce.user.entity.Address;
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserRole;
+import com.ecommerce.user.repository.AddressRepository;
+import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.service.UserEventPublisher;
+import com.ecommerce.user.service.UserService;
+import com.ecommerce.user.util.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class WarmupRunnerTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LoginAuditTrail loginAuditTrail;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserEventPublisher eventPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void warmsTheLookupPathWithoutWritingOrPublishing() {
+        User user = userRepository.save(User.builder()
+                .username("warmup-existing")
+                .email("warmup-existing@warmup.example.com")
+                .password("not-a-real-hash")
+                .role(UserRole.CUSTOMER)
+                .createdAt(System.currentTimeMillis())
+                .build());
+        addressRepository.save(Address.builder().user(user).city("Pune").build());
+        Map<String, Object> before = snapshot();
+        UserService service = mock(UserService.class, delegatesTo(userService));
+
+        runner(service).run(new DefaultApplicationArguments());
+        loginAuditTrail.flush();
+
+        assertEquals(3, meterRegistry.timer("user.warmup.iteration", "path", "lookup").count());
+        assertEquals(2, meterRegistry.timer("user.warmup.iteration", "path", "credentials").count());
+        assertEquals(5, meterRegistry.timer("user.warmup.iteration", "path", "jwt").count());
+        assertEquals(5, meterRegistry.timer("user.warmup.iteration", "path", "json").count());
+        assertEquals(1, meterRegistry.timer("user.warmup.duration").count());
+        verify(service, times(3)).getUserById(anyLong());
+        assertEquals(before, snapshot());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private WarmupRunner runner(UserService service) {
+        WarmupProperties properties = new WarmupProperties();
+        properties.setIterations(5);
+        properties.setCredentialIterations(2);
+        properties.setLookupIterations(3);
+        properties.setMaxDuration(Duration.ofMinutes(1));
+        return new WarmupRunner(service, userRepository, passwordEncoder, jwtService, objectMapper, meterRegistry,
+                properties);
+    }
+
+    // Row counts and latest write stamps of every table the service writes to
+    private Map<String, Object> snapshot() {
+        return Map.of(
+                "users", jdbcTemplate.queryForList("SELECT COUNT(*), MAX(updated_at) FROM users"),
+                "addresses", jdbcTemplate.queryForList("SELECT COUNT(*), MAX(updated_at) FROM addresses"),
+                "login_attempts", jdbcTemplate.queryForList("SELECT COUNT(*) FROM login_attempts"));
+    }
+}